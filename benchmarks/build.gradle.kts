@@ -48,6 +48,8 @@ dependencies {
 
     implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-yaml:2.14.0")
 
+    implementation("org.hdrhistogram:HdrHistogram:2.1.12")
+
     implementation("org.corfudb:infrastructure:${corfuVersion}") {
         exclude(group = "io.netty", module = "netty-tcnative")
     }
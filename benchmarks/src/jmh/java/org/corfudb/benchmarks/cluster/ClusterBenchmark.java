@@ -2,6 +2,8 @@ package org.corfudb.benchmarks.cluster;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.corfudb.benchmarks.cluster.cloud.BenchmarkConfig.ProfilerParams;
+import org.corfudb.benchmarks.cluster.cloud.BenchmarkProfilers;
 import org.corfudb.benchmarks.util.DataGenerator;
 import org.corfudb.runtime.collections.ICorfuTable;
 import org.corfudb.universe.api.UniverseManager;
@@ -26,6 +28,7 @@ import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.results.format.ResultFormatType;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
@@ -55,14 +58,21 @@ public class ClusterBenchmark {
         String benchmarkName = ClusterBenchmark.class.getSimpleName();
         log.info("Start {}", benchmarkName);
 
-        Path benchmarksReportDir = Paths.get("benchmarks", "build", benchmarkName + ".csv");
-        benchmarksReportDir.toFile().mkdirs();
+        Path benchmarksReportFile = Paths.get("benchmarks", "build", benchmarkName + ".csv");
+        benchmarksReportFile.toFile().getParentFile().mkdirs();
 
-        Options opt = new OptionsBuilder()
+        ChainedOptionsBuilder optionsBuilder = new OptionsBuilder()
                 .include(benchmarkName)
                 .shouldFailOnError(true)
                 .resultFormat(ResultFormatType.CSV)
-                .result(benchmarksReportDir.toString())
+                .result(benchmarksReportFile.toString());
+
+        // a local run: the default profilers of the cloud benchmark config
+        Options opt = BenchmarkProfilers
+                .attach(
+                        optionsBuilder, new ProfilerParams(), benchmarksReportFile.getParent(), benchmarkName,
+                        List.of()
+                )
                 .build();
 
         new Runner(opt).run();
@@ -183,20 +193,21 @@ public class ClusterBenchmark {
             }
             workflow.getUniverse().shutdown();
         }
+    }
 
-        /**
-         * Provides a current version of this project. It parses the version from pom.xml
-         *
-         * @return maven/project version
-         */
-        private String getAppVersion() {
-            //Temporary limitation, will de fixed soon.
-            // The problem is that the resource files are in a different directory: build/resources,
-            // to move them to classes directory as IDEA expected we need to change output dir for resources
-            //https://docs.gradle.org/current/dsl/org.gradle.api.tasks.SourceSetOutput.html
-
-            //return new UniverseAppUtil().getAppVersion();
-            return "0.9.1.0-SNAPSHOT";
-        }
+    /**
+     * Provides a current version of this project. It parses the version from pom.xml.
+     * Also the server version of {@link org.corfudb.benchmarks.runtime.collections.helper.CorfuClusterHelper}
+     *
+     * @return maven/project version
+     */
+    public static String getAppVersion() {
+        //Temporary limitation, will de fixed soon.
+        // The problem is that the resource files are in a different directory: build/resources,
+        // to move them to classes directory as IDEA expected we need to change output dir for resources
+        //https://docs.gradle.org/current/dsl/org.gradle.api.tasks.SourceSetOutput.html
+
+        //return new UniverseAppUtil().getAppVersion();
+        return "0.9.1.0-SNAPSHOT";
     }
 }
@@ -0,0 +1,264 @@
+package org.corfudb.benchmarks.cluster;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.benchmarks.runtime.collections.helper.CorfuClusterHelper;
+import org.corfudb.benchmarks.util.DataGenerator;
+import org.corfudb.runtime.collections.ICorfuTable;
+import org.corfudb.universe.universe.node.client.CorfuClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client scaling of corfu table puts: a sweep over corfu runtimes x benchmark threads x tables.
+ * <p>
+ * The benchmark side shares nothing on the hot path: every thread is bound to a runtime (threadIndex % numRuntimes),
+ * writes to its own deterministic shard of the tables and generates its own keys,
+ * so the measured scaling is the scaling of corfu rather than the contention of the benchmark.
+ * <p>
+ * A jmh run has a fixed number of threads, so main runs the benchmark for every threads x runtimes combination
+ * (runtimes <= threads) and saves a scaling report: ops/s per thread, efficiency relative to a single client
+ * and the ops/s gained by every added client, see docs/benchmarks/corfu-table.md
+ */
+@Slf4j
+public class ClusterScalingBenchmark {
+    private static final String DEFAULT_STREAM_NAME = "scaling";
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16};
+    private static final int[] RUNTIMES = {1, 2, 4, 8, 16};
+
+    private static final String REPORT_HEADER = "numServers,numTables,numRuntimes,threads,opsPerSec,"
+            + "opsPerSecPerThread,efficiency,marginalOpsPerSec\n";
+
+    /**
+     * Cluster scaling benchmark
+     *
+     * @param args args
+     * @throws RunnerException jmh exception
+     */
+    public static void main(String[] args) throws RunnerException {
+        String benchmarkName = ClusterScalingBenchmark.class.getSimpleName();
+        log.info("Start {}", benchmarkName);
+
+        Path reportDir = Paths.get("benchmarks", "build");
+        reportDir.toFile().mkdirs();
+
+        List<RunResult> results = new ArrayList<>();
+        for (int threads : THREADS) {
+            for (int runtimes : RUNTIMES) {
+                if (runtimes > threads) {
+                    continue;
+                }
+
+                String runName = benchmarkName + "-threads" + threads + "-runtimes" + runtimes;
+                Options opt = new OptionsBuilder()
+                        .include(benchmarkName)
+                        .shouldFailOnError(true)
+                        .threads(threads)
+                        .param("numRuntimes", String.valueOf(runtimes))
+                        .resultFormat(ResultFormatType.CSV)
+                        .result(reportDir.resolve(runName + ".csv").toString())
+                        .build();
+
+                results.addAll(new Runner(opt).run());
+            }
+        }
+
+        saveScalingReport(reportDir.resolve(benchmarkName + "-scaling.csv"), results);
+    }
+
+    /**
+     * Scaling report: for every (servers, tables, runtimes) series ordered by threads,
+     * efficiency = ops/s / (threads * ops/s of a single thread with a single runtime),
+     * marginalOpsPerSec = ops/s gained per thread added since the previous point of the series
+     */
+    private static void saveScalingReport(Path report, List<RunResult> results) {
+        results.sort(Comparator
+                .comparingInt((RunResult r) -> param(r, "numServers"))
+                .thenComparingInt(r -> param(r, "numTables"))
+                .thenComparingInt(r -> param(r, "numRuntimes"))
+                .thenComparingInt(r -> r.getParams().getThreads())
+        );
+
+        StringBuilder rows = new StringBuilder(REPORT_HEADER);
+        RunResult previous = null;
+        for (RunResult result : results) {
+            BenchmarkParams params = result.getParams();
+            int threads = params.getThreads();
+            double score = result.getPrimaryResult().getScore();
+
+            double baseline = results.stream()
+                    .filter(r -> param(r, "numServers") == param(result, "numServers"))
+                    .filter(r -> param(r, "numTables") == param(result, "numTables"))
+                    .filter(r -> param(r, "numRuntimes") == 1 && r.getParams().getThreads() == 1)
+                    .mapToDouble(r -> r.getPrimaryResult().getScore())
+                    .findFirst()
+                    .orElse(Double.NaN);
+
+            boolean sameSeries = previous != null
+                    && param(previous, "numServers") == param(result, "numServers")
+                    && param(previous, "numTables") == param(result, "numTables")
+                    && param(previous, "numRuntimes") == param(result, "numRuntimes");
+            double marginal = sameSeries
+                    ? (score - previous.getPrimaryResult().getScore()) / (threads - previous.getParams().getThreads())
+                    : Double.NaN;
+
+            rows.append(String.format(Locale.ROOT, "%d,%d,%d,%d,%.1f,%.1f,%.3f,%.1f%n",
+                    param(result, "numServers"), param(result, "numTables"), param(result, "numRuntimes"),
+                    threads, score, score / threads, score / (threads * baseline), marginal
+            ));
+            previous = result;
+        }
+
+        log.info("Scaling report:\n{}", rows);
+        try {
+            Files.write(report, rows.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("can't save the scaling report: " + report, e);
+        }
+    }
+
+    private static int param(RunResult result, String name) {
+        return Integer.parseInt(result.getParams().getParam(name));
+    }
+
+    /**
+     * Measure corfu table `put` operation throughput of a client
+     *
+     * @param client client state of the thread
+     */
+    @Benchmark
+    @Warmup(iterations = 1, time = 10)
+    @Measurement(iterations = 3, time = 20)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Fork(1)
+    public void put(ClientState client) {
+        client.nextTable().insert(client.nextKey(), client.data);
+    }
+
+    /**
+     * The cluster, the runtimes and the tables opened by every runtime
+     */
+    @State(Scope.Benchmark)
+    @Getter
+    @Slf4j
+    public static class ClusterState {
+
+        @Param({"4096"})
+        private int dataSize;
+
+        @Param({"1"})
+        private int numServers;
+
+        @Param({"1"})
+        private int numRuntimes;
+
+        @Param({"1", "4", "16"})
+        private int numTables;
+
+        private final CorfuClusterHelper cluster = new CorfuClusterHelper();
+
+        /**
+         * Tables of every runtime: tables.get(runtime).get(table)
+         */
+        private final List<List<ICorfuTable<String, String>>> tables = new ArrayList<>();
+
+        private String data;
+
+        @Setup
+        public void init() {
+            data = DataGenerator.generateDataString(dataSize);
+            cluster.deploy("corfu_cluster_scaling_benchmark", numServers);
+
+            for (int runtime = 0; runtime < numRuntimes; runtime++) {
+                CorfuClient client = cluster.newClient();
+
+                List<ICorfuTable<String, String>> runtimeTables = new ArrayList<>();
+                for (int table = 0; table < numTables; table++) {
+                    runtimeTables.add(client.createDefaultCorfuTable(DEFAULT_STREAM_NAME + table));
+                }
+                tables.add(runtimeTables);
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            cluster.shutdown();
+        }
+    }
+
+    /**
+     * A client: the runtime and the table shard of a thread.
+     * With more tables than threads a thread owns the tables {table : table % threads == threadIndex},
+     * otherwise it writes to the table threadIndex % numTables.
+     */
+    @State(Scope.Thread)
+    public static class ClientState {
+        private List<ICorfuTable<String, String>> shard;
+        private String keyPrefix;
+        private String data;
+
+        private long keyCounter;
+        private int tableCounter;
+
+        @Setup
+        public void init(ClusterState cluster, ThreadParams thread) {
+            int threadIndex = thread.getThreadIndex();
+            int numTables = cluster.getNumTables();
+            int numShards = Math.min(thread.getThreadCount(), numTables);
+
+            List<ICorfuTable<String, String>> runtimeTables = cluster.getTables()
+                    .get(threadIndex % cluster.getNumRuntimes());
+
+            shard = new ArrayList<>();
+            for (int table = 0; table < numTables; table++) {
+                if (table % numShards == threadIndex % numShards) {
+                    shard.add(runtimeTables.get(table));
+                }
+            }
+
+            keyPrefix = "t" + threadIndex + "-";
+            data = cluster.getData();
+        }
+
+        ICorfuTable<String, String> nextTable() {
+            ICorfuTable<String, String> table = shard.get(tableCounter);
+            tableCounter = (tableCounter + 1) % shard.size();
+            return table;
+        }
+
+        String nextKey() {
+            return keyPrefix + keyCounter++;
+        }
+    }
+}
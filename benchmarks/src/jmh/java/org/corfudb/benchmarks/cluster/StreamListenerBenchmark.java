@@ -0,0 +1,314 @@
+package org.corfudb.benchmarks.cluster;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Message;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.corfudb.benchmarks.BenchmarkSchema.ListenerEvent;
+import org.corfudb.benchmarks.cluster.cloud.BenchmarkConfig.StreamListenerParams;
+import org.corfudb.benchmarks.cluster.cloud.OpenLoopLoadGenerator;
+import org.corfudb.benchmarks.cluster.cloud.OpenLoopLoadGenerator.StepResult;
+import org.corfudb.benchmarks.runtime.collections.helper.CorfuClusterHelper;
+import org.corfudb.benchmarks.util.DataGenerator;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.collections.CorfuStore;
+import org.corfudb.runtime.collections.CorfuStreamEntries;
+import org.corfudb.runtime.collections.CorfuStreamEntry;
+import org.corfudb.runtime.collections.StreamListener;
+import org.corfudb.runtime.collections.Table;
+import org.corfudb.runtime.collections.TableOptions;
+import org.corfudb.runtime.collections.TxnContext;
+import org.corfudb.utils.CommonTypes.Uuid;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end delivery of CorfuStore changes to stream listeners: numListeners listeners are subscribed
+ * to numTables tables while the writers commit at the fixed rates of {@link OpenLoopLoadGenerator}.
+ * <p>
+ * Every event carries the writer's {@link System#nanoTime()} taken before the commit and its rate step,
+ * so a listener records the commit-to-delivery latency into the histogram of the step the event was written in.
+ * The backlog (committed events not yet delivered to the slowest listener) is sampled at the start and at the end
+ * of every step: when it grows by more than 5% of the commits of a step, the listeners can't keep up with the rate
+ * and the lag is unbounded.
+ * <p>
+ * main runs against a universe (docker) cluster,
+ * {@link org.corfudb.benchmarks.cluster.cloud.CloudNativeStreamListenerBenchmark} against the cloud native deployment.
+ * see: docs/benchmarks/corfu-table.md
+ */
+@Slf4j
+public class StreamListenerBenchmark {
+    private static final String NAMESPACE = "benchmark";
+    private static final String STREAM_TAG = "benchmark_listener";
+    private static final String TABLE_NAME = "ListenerTable";
+    private static final int KEY_SPACE = 100_000;
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double BACKLOG_TOLERANCE = 0.05;
+    private static final long DRAIN_POLL_MS = 100;
+
+    private static final String CSV_HEADER = "numListeners,numTables,targetRate,commitRate,commitP99Us,"
+            + "deliveriesPerSecPerListener,backlogStart,backlogEnd,deliveryP50Us,deliveryP90Us,deliveryP99Us,"
+            + "deliveryP999Us,deliveryMaxUs,unboundedLag\n";
+
+    private final List<CorfuRuntime> runtimes;
+    private final StreamListenerParams params;
+
+    private final List<CorfuStore> stores = new ArrayList<>();
+    private final List<List<Table<Uuid, ListenerEvent, Message>>> tables = new ArrayList<>();
+    private final List<DeliveryListener> listeners = new ArrayList<>();
+
+    private final List<Recorder> deliveryLatency = new ArrayList<>();
+    private final AtomicLong committed = new AtomicLong();
+
+    private final long[] backlogStart;
+    private final long[] backlogEnd;
+    private final long[] deliveredStart;
+    private final long[] deliveredEnd;
+
+    private volatile int currentStep = -1;
+
+    /**
+     * Stream listener benchmark against a universe (docker) cluster, with the default parameters
+     *
+     * @param args args
+     * @throws Exception corfu exception
+     */
+    public static void main(String[] args) throws Exception {
+        String benchmarkName = StreamListenerBenchmark.class.getSimpleName();
+        StreamListenerParams params = new StreamListenerParams();
+        log.info("Start {}: {}", benchmarkName, params);
+
+        CorfuClusterHelper cluster = new CorfuClusterHelper();
+        try {
+            List<CorfuRuntime> runtimes = new ArrayList<>();
+            runtimes.add(cluster.deploy("corfu_stream_listener_benchmark").getRuntime());
+            for (int i = 1; i < params.numRuntimes; i++) {
+                runtimes.add(cluster.newClient().getRuntime());
+            }
+
+            Path report = Paths.get("benchmarks", "build", benchmarkName + ".csv");
+            new StreamListenerBenchmark(runtimes, params).run(report);
+        } finally {
+            cluster.shutdown();
+        }
+    }
+
+    public StreamListenerBenchmark(List<CorfuRuntime> runtimes, StreamListenerParams params) {
+        if (runtimes.isEmpty()) {
+            throw new IllegalArgumentException("No corfu runtimes");
+        }
+
+        this.runtimes = runtimes;
+        this.params = params;
+
+        int numSteps = params.rates.size();
+        backlogStart = new long[numSteps];
+        backlogEnd = new long[numSteps];
+        deliveredStart = new long[numSteps];
+        deliveredEnd = new long[numSteps];
+        for (int i = 0; i < numSteps; i++) {
+            deliveryLatency.add(new Recorder(SIGNIFICANT_DIGITS));
+        }
+    }
+
+    /**
+     * Open the tables, subscribe the listeners, run the rate steps and append the results to the report
+     *
+     * @param report csv report
+     * @throws Exception corfu exception
+     */
+    public void run(Path report) throws Exception {
+        List<String> tableNames = new ArrayList<>();
+        for (int i = 0; i < params.numTables; i++) {
+            tableNames.add(TABLE_NAME + i);
+        }
+
+        for (CorfuRuntime runtime : runtimes) {
+            CorfuStore store = new CorfuStore(runtime);
+            List<Table<Uuid, ListenerEvent, Message>> storeTables = new ArrayList<>();
+            for (String tableName : tableNames) {
+                storeTables.add(store.openTable(
+                        NAMESPACE, tableName, Uuid.class, ListenerEvent.class, null,
+                        TableOptions.fromProtoSchema(ListenerEvent.class)
+                ));
+            }
+            stores.add(store);
+            tables.add(storeTables);
+        }
+
+        for (int i = 0; i < params.numListeners; i++) {
+            DeliveryListener listener = new DeliveryListener();
+            stores.get(i % stores.size()).subscribeListener(listener, NAMESPACE, STREAM_TAG, tableNames);
+            listeners.add(listener);
+        }
+
+        try {
+            List<StepResult> commits = write();
+            drain();
+            save(report, commits);
+        } finally {
+            for (int i = 0; i < listeners.size(); i++) {
+                stores.get(i % stores.size()).unsubscribeListener(listeners.get(i));
+            }
+        }
+    }
+
+    private List<StepResult> write() {
+        ByteString payload = ByteString.copyFromUtf8(DataGenerator.generateDataString(params.dataSize));
+
+        OpenLoopLoadGenerator generator = OpenLoopLoadGenerator.builder()
+                .rates(params.rates)
+                .stepDuration(Duration.ofSeconds(params.stepSeconds))
+                .warmup(Duration.ofSeconds(params.warmupSeconds))
+                .stepListener(new OpenLoopLoadGenerator.StepListener() {
+                    @Override
+                    public void stepStarted(int step, int rate) {
+                        currentStep = step;
+                        if (step >= 0) {
+                            backlogStart[step] = backlog();
+                            deliveredStart[step] = delivered();
+                        }
+                    }
+
+                    @Override
+                    public void stepFinished(int step, int rate) {
+                        if (step >= 0) {
+                            backlogEnd[step] = backlog();
+                            deliveredEnd[step] = delivered();
+                        }
+                    }
+                })
+                .build();
+
+        return generator.run("listener-commit", () -> {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            int writer = rnd.nextInt(stores.size());
+            Table<Uuid, ListenerEvent, Message> table = tables.get(writer).get(rnd.nextInt(params.numTables));
+
+            int id = rnd.nextInt(KEY_SPACE);
+            Uuid key = Uuid.newBuilder()
+                    .setMsb(id)
+                    .setLsb(id)
+                    .build();
+            ListenerEvent event = ListenerEvent.newBuilder()
+                    .setCommitNanos(System.nanoTime())
+                    .setStep(currentStep)
+                    .setPayload(payload)
+                    .build();
+
+            try (TxnContext tx = stores.get(writer).txn(NAMESPACE)) {
+                tx.putRecord(table, key, event, null);
+                tx.commit();
+            }
+            committed.incrementAndGet();
+        });
+    }
+
+    /**
+     * Wait for the listeners to deliver all the committed events, the late deliveries count in their steps
+     */
+    private void drain() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(params.drainSeconds);
+        while (backlog() > 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(DRAIN_POLL_MS);
+        }
+        log.info("Drained, backlog: {}", backlog());
+    }
+
+    /**
+     * Committed events not delivered to the slowest listener yet
+     */
+    private long backlog() {
+        long slowest = listeners.stream()
+                .mapToLong(listener -> listener.delivered.get())
+                .min()
+                .orElse(0);
+        return committed.get() - slowest;
+    }
+
+    private long delivered() {
+        return listeners.stream()
+                .mapToLong(listener -> listener.delivered.get())
+                .sum();
+    }
+
+    private void save(Path report, List<StepResult> commits) {
+        StringBuilder rows = new StringBuilder();
+        for (int step = 0; step < commits.size(); step++) {
+            StepResult commit = commits.get(step);
+            Histogram delivery = deliveryLatency.get(step).getIntervalHistogram();
+
+            double deliveriesPerListener = (deliveredEnd[step] - deliveredStart[step])
+                    / (double) params.numListeners / params.stepSeconds;
+            long backlogGrowthLimit = (long) (commit.getTargetRate() * params.stepSeconds * BACKLOG_TOLERANCE);
+            boolean unboundedLag = backlogEnd[step] - backlogStart[step] > backlogGrowthLimit;
+
+            rows.append(String.format(Locale.ROOT, "%d,%d,%d,%.1f,%d,%.1f,%d,%d,%d,%d,%d,%d,%d,%b%n",
+                    params.numListeners, params.numTables, commit.getTargetRate(), commit.getAchievedRate(),
+                    commit.getP99Us(), deliveriesPerListener, backlogStart[step], backlogEnd[step],
+                    micros(delivery.getValueAtPercentile(50)), micros(delivery.getValueAtPercentile(90)),
+                    micros(delivery.getValueAtPercentile(99)), micros(delivery.getValueAtPercentile(99.9)),
+                    micros(delivery.getMaxValue()), unboundedLag
+            ));
+        }
+        log.info("Stream listener results:\n{}", CSV_HEADER + rows);
+
+        try {
+            Files.createDirectories(report.toAbsolutePath().getParent());
+            if (!Files.exists(report)) {
+                Files.write(report, CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+            }
+            Files.write(report, rows.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new IllegalStateException("can't save stream listener results: " + report, e);
+        }
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    /**
+     * Records the commit-to-delivery latency of every event
+     */
+    private class DeliveryListener implements StreamListener {
+        private final AtomicLong delivered = new AtomicLong();
+
+        @Override
+        public void onNext(CorfuStreamEntries results) {
+            long now = System.nanoTime();
+            for (List<CorfuStreamEntry> entries : results.getEntries().values()) {
+                for (CorfuStreamEntry entry : entries) {
+                    if (!(entry.getPayload() instanceof ListenerEvent)) {
+                        continue;
+                    }
+
+                    ListenerEvent event = (ListenerEvent) entry.getPayload();
+                    if (event.getStep() >= 0) {
+                        deliveryLatency.get(event.getStep()).recordValue(Math.max(0, now - event.getCommitNanos()));
+                    }
+                    delivered.incrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            log.error("Stream listener error", throwable);
+        }
+    }
+}
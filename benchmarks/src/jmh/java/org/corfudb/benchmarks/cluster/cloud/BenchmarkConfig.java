@@ -4,6 +4,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
+import java.util.List;
+
 @Getter
 @ToString
 @NoArgsConstructor
@@ -23,6 +25,24 @@ public class BenchmarkConfig {
 
         public RandomizedPutParams randomizedPut;
 
+        public PayloadParams payload = new PayloadParams();
+
+        public KeyParams keys = new KeyParams();
+
+        public LoadParams load = new LoadParams();
+
+        public ProfilerParams profilers = new ProfilerParams();
+
+        public LatencyParams latency = new LatencyParams();
+
+        public OpenLoopParams openLoop = new OpenLoopParams();
+
+        public ContentionParams contention = new ContentionParams();
+
+        public StreamListenerParams streamListener = new StreamListenerParams();
+
+        public CheckpointParams checkpoint = new CheckpointParams();
+
         public int threads;
         public int forks;
 
@@ -64,6 +84,176 @@ public class BenchmarkConfig {
         public String[] dataSizeForGetOperation;
         public String[] getNumRuntimes;
         public String[] getNumTables;
+        public String[] tableSize = {"10000"};
+    }
+
+    /**
+     * Payload model of the values, see {@link org.corfudb.benchmarks.util.PayloadType}
+     */
+    @Getter
+    @ToString
+    @NoArgsConstructor
+    public static class PayloadParams {
+        public String[] types = {"ascii"};
+        public String[] compressionRatio = {"4"};
+    }
+
+    /**
+     * Key access distribution, see {@link org.corfudb.benchmarks.util.KeyDistribution}.
+     * Get operations access the pre-filled keys, put operations access putKeySpace keys.
+     */
+    @Getter
+    @ToString
+    @NoArgsConstructor
+    public static class KeyParams {
+        public String[] distribution = {"uniform"};
+        public String[] putKeySpace = {String.valueOf(Integer.MAX_VALUE)};
+    }
+
+    /**
+     * Table pre-population: number of loader threads and number of records per transaction,
+     * see {@link org.corfudb.benchmarks.runtime.collections.helper.BulkLoader}
+     */
+    @Getter
+    @ToString
+    @NoArgsConstructor
+    public static class LoadParams {
+        public String[] threads = {"8"};
+        public String[] batchSize = {"1000"};
+    }
+
+    /**
+     * Jmh modes (thrpt, avgt, sample, ss) and the time unit of the results,
+     * per-operation latency histograms are saved if enabled, see {@link LatencyHistograms}
+     */
+    @Getter
+    @ToString
+    @NoArgsConstructor
+    public static class LatencyParams {
+        public String[] modes = {"thrpt"};
+        public String timeUnit = "SECONDS";
+        public boolean histograms = true;
+    }
+
+    /**
+     * Open-loop load: a get/put mix issued at fixed rates, see {@link OpenLoopLoadGenerator}
+     */
+    @Getter
+    @ToString
+    @NoArgsConstructor
+    public static class OpenLoopParams {
+        /**
+         * Target rates of the steps, operations per second
+         */
+        public List<Integer> rates = List.of(1000, 2000, 5000, 10000, 20000);
+        public int stepSeconds = 60;
+        public int warmupSeconds = 30;
+        public int maxOutstanding = 10000;
+        /**
+         * Fraction of get operations, the rest are puts
+         */
+        public double readRatio = 0.9;
+        public int numRuntimes = 1;
+        public int numTables = 1;
+        public int dataSize = 1024;
+        public int tableSize = 10000;
+        public String keyDistribution = "uniform";
+    }
+
+    /**
+     * Read-modify-write transactions over hot keys, see {@link ContendedTransactionBenchmark}
+     */
+    @Getter
+    @ToString
+    @NoArgsConstructor
+    public static class ContentionParams {
+        public String[] hotKeys = {"1", "10", "100", "10000"};
+        public String[] keysPerTxn = {"1"};
+        public String[] numRuntimes = {"1", "4"};
+        public String[] maxRetries = {"10"};
+    }
+
+    /**
+     * Stream listeners of tables written at fixed commit rates,
+     * see {@link org.corfudb.benchmarks.cluster.StreamListenerBenchmark}
+     */
+    @Getter
+    @ToString
+    @NoArgsConstructor
+    public static class StreamListenerParams {
+        public int numListeners = 4;
+        public int numTables = 4;
+        /**
+         * Listeners and writers are spread over the runtimes
+         */
+        public int numRuntimes = 2;
+        /**
+         * Commit rates of the writers, commits per second
+         */
+        public List<Integer> rates = List.of(100, 500, 1000, 5000);
+        public int stepSeconds = 60;
+        public int warmupSeconds = 30;
+        /**
+         * Max time to wait for the listeners to catch up after the last step
+         */
+        public int drainSeconds = 60;
+        public int dataSize = 1024;
+    }
+
+    /**
+     * Checkpoint, trim and cold load of tables, see {@link CheckpointBenchmark}
+     */
+    @Getter
+    @ToString
+    @NoArgsConstructor
+    public static class CheckpointParams {
+        public List<Integer> numTables = List.of(1, 4, 16);
+        public List<Integer> tableSizes = List.of(10000, 100000, 1000000);
+        public int dataSize = 1024;
+        /**
+         * Checkpoint cycles of every configuration
+         */
+        public int rounds = 3;
+    }
+
+    /**
+     * Profilers of the benchmark runs, see {@link BenchmarkProfilers}
+     */
+    @Getter
+    @ToString
+    @NoArgsConstructor
+    public static class ProfilerParams {
+        public boolean gc = true;
+        public boolean stack = false;
+        public AsyncProfilerParams asyncProfiler = new AsyncProfilerParams();
+        public JfrParams jfr = new JfrParams();
+    }
+
+    @Getter
+    @ToString
+    @NoArgsConstructor
+    public static class AsyncProfilerParams {
+        public boolean enabled = false;
+        public String libPath = "/opt/async-profiler/lib/libasyncProfiler.so";
+        /**
+         * cpu, wall, itimer, lock
+         */
+        public String event = "cpu";
+        /**
+         * Profile allocations along with the event
+         */
+        public boolean alloc = false;
+    }
+
+    @Getter
+    @ToString
+    @NoArgsConstructor
+    public static class JfrParams {
+        public boolean enabled = false;
+        /**
+         * JFR settings: default or profile
+         */
+        public String settings = "profile";
     }
 
     @Getter
@@ -0,0 +1,88 @@
+package org.corfudb.benchmarks.cluster.cloud;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.benchmarks.cluster.cloud.BenchmarkConfig.ProfilerParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.profile.StackProfiler;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Attaches the profilers of the `profilers` section of config.yaml to a benchmark run:
+ * jmh gc and stack profilers (reported along with the results), async-profiler and JFR recordings.
+ * async-profiler and JFR run as agents of every fork, a fork writes its own file (%p - pid of the fork)
+ * into the output directory, next to the csv report.
+ */
+@Slf4j
+public final class BenchmarkProfilers {
+
+    private BenchmarkProfilers() {
+        //prevent creating instances
+    }
+
+    /**
+     * Add the enabled profilers to the jmh options
+     *
+     * @param options   jmh options
+     * @param params    profilers config
+     * @param outputDir directory of the profiles
+     * @param runName   prefix of the profile files, like: CloudNativeClusterBenchmark-1650000000000
+     * @param forkArgs  other jvm args of the forks, jmh keeps only the last jvmArgsAppend value
+     * @return jmh options
+     */
+    public static ChainedOptionsBuilder attach(
+            ChainedOptionsBuilder options, @NonNull ProfilerParams params, Path outputDir, String runName,
+            List<String> forkArgs) {
+
+        if (params.gc) {
+            options.addProfiler(GCProfiler.class);
+        }
+
+        if (params.stack) {
+            options.addProfiler(StackProfiler.class);
+        }
+
+        List<String> jvmArgs = new ArrayList<>(forkArgs);
+        if (params.asyncProfiler.enabled) {
+            jvmArgs.add(asyncProfilerAgent(params.asyncProfiler, outputDir, runName));
+        }
+
+        if (params.jfr.enabled) {
+            Path recording = outputDir.resolve(runName + "-%p.jfr");
+            jvmArgs.add("-XX:StartFlightRecording=settings=" + params.jfr.settings
+                    + ",filename=" + recording + ",dumponexit=true");
+        }
+
+        if (!jvmArgs.isEmpty()) {
+            log.info("Fork jvm args: {}", jvmArgs);
+            options.jvmArgsAppend(jvmArgs.toArray(new String[0]));
+        }
+
+        return options;
+    }
+
+    /**
+     * async-profiler agent: a flame graph (html) of the event, or a jfr file if allocations are profiled too
+     * (a jfr file keeps both cpu and allocation samples, converted to flame graphs by async-profiler's jfrconv)
+     */
+    private static String asyncProfilerAgent(
+            BenchmarkConfig.AsyncProfilerParams params, Path outputDir, String runName) {
+
+        String format = params.alloc ? "jfr" : "html";
+        Path profile = outputDir.resolve(runName + "-" + params.event + "-%p." + format);
+
+        StringBuilder agent = new StringBuilder("-agentpath:")
+                .append(params.libPath)
+                .append("=start,event=").append(params.event);
+        if (params.alloc) {
+            agent.append(",alloc");
+        }
+        agent.append(",file=").append(profile);
+
+        return agent.toString();
+    }
+}
@@ -0,0 +1,153 @@
+package org.corfudb.benchmarks.cluster.cloud;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.benchmarks.cluster.cloud.BenchmarkConfig.CheckpointParams;
+import org.corfudb.benchmarks.cluster.cloud.CloudNativeClusterBenchmarkStateUtil.CheckpointResult;
+import org.corfudb.benchmarks.cluster.cloud.CloudNativeClusterBenchmarkStateUtil.CorfuStoreAndTable;
+import org.corfudb.benchmarks.runtime.collections.helper.BulkLoader;
+import org.corfudb.benchmarks.util.PayloadGenerator;
+import org.corfudb.benchmarks.util.PayloadType;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.collections.TxnContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.corfudb.benchmarks.cluster.cloud.CloudNativeClusterBenchmark.CONFIG;
+
+/**
+ * Cost of a checkpoint window: for every number of tables and table size the tables are filled and then
+ * checkpointed, trimmed and garbage collected ({@link CloudNativeClusterBenchmarkStateUtil#checkpointing()})
+ * `rounds` times. After every cycle a fresh runtime opens a table and syncs it from the checkpoint (cold load).
+ * <p>
+ * A row per cycle is saved into /var/log/corfu: checkpoint write throughput (entries/s, MB/s of the values),
+ * trim and gc time and cold load time. The tables of a configuration are cleared after its rounds: every cycle
+ * checkpoints all the registered tables, so the tables of the previous configurations would be checkpointed too.
+ * see: docs/benchmarks/corfu-cloud-native-cluster.md
+ */
+@Slf4j
+public class CheckpointBenchmark {
+
+    private static final String CSV_HEADER = "numTables,tableSize,dataSize,round,entries,totalEntries,checkpointMs,"
+            + "entriesPerSec,mbPerSec,trimMs,gcMs,coldLoadMs,coldLoadEntries\n";
+
+    /**
+     * Checkpoint benchmark
+     *
+     * @param args args
+     * @throws Exception corfu exception
+     */
+    public static void main(String[] args) throws Exception {
+        String benchmarkName = CheckpointBenchmark.class.getSimpleName();
+        CheckpointParams params = CONFIG.benchmark.checkpoint;
+        log.info("Start {}: {}", benchmarkName, params);
+
+        Path report = Paths.get("/", "var", "log", "corfu", benchmarkName + "-" + System.currentTimeMillis() + ".csv");
+        Files.createDirectories(report.getParent());
+        Files.write(report, CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+
+        PayloadGenerator payload = PayloadGenerator.of(
+                PayloadType.fromName(CONFIG.benchmark.payload.types[0]),
+                Integer.parseInt(CONFIG.benchmark.payload.compressionRatio[0])
+        );
+
+        for (int numTables : params.numTables) {
+            for (int tableSize : params.tableSizes) {
+                run(report, params, payload, numTables, tableSize);
+            }
+        }
+
+        log.info("Finishing benchmark! Results: {}", report);
+        TimeUnit.MINUTES.sleep(CONFIG.benchmark.coolOffPeriodMinutes);
+    }
+
+    private static void run(
+            Path report, CheckpointParams params, PayloadGenerator payload, int numTables, int tableSize)
+            throws Exception {
+
+        log.info("Checkpoint {} tables of {} entries", numTables, tableSize);
+        String tablePrefix = "checkpoint-tables" + numTables + "-size" + tableSize + "-";
+
+        CloudNativeClusterBenchmarkStateUtil util = new CloudNativeClusterBenchmarkStateUtil();
+        CorfuRuntime runtime = util.buildCorfuClient();
+        util.corfuClients.add(runtime);
+        try {
+            for (int i = 0; i < numTables; i++) {
+                util.tables.add(util.createDefaultCorfuTable(runtime, tablePrefix + i));
+            }
+            fillTables(util, params, payload, tableSize);
+
+            for (int round = 0; round < params.rounds; round++) {
+                CheckpointResult checkpoint = util.checkpointing();
+                ColdLoad coldLoad = coldLoad(util, tablePrefix + 0);
+
+                double checkpointSeconds = Math.max(1, checkpoint.getCheckpoint().toNanos()) / 1_000_000_000.0;
+                double megabytes = checkpoint.getEntries() * (double) params.dataSize / (1024 * 1024);
+
+                String row = String.format(Locale.ROOT, "%d,%d,%d,%d,%d,%d,%d,%.1f,%.2f,%d,%d,%d,%d%n",
+                        numTables, tableSize, params.dataSize, round,
+                        checkpoint.getEntries(), checkpoint.getTotalEntries(),
+                        checkpoint.getCheckpoint().toMillis(), checkpoint.getEntries() / checkpointSeconds,
+                        megabytes / checkpointSeconds, checkpoint.getTrim().toMillis(), checkpoint.getGc().toMillis(),
+                        coldLoad.elapsed.toMillis(), coldLoad.entries
+                );
+                log.info("Checkpoint round: {}", CSV_HEADER + row);
+                Files.write(report, row.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            }
+
+            for (CorfuStoreAndTable storeAndTable : util.tables) {
+                storeAndTable.table.clearAll();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("can't save checkpoint results: " + report, e);
+        } finally {
+            runtime.shutdown();
+        }
+    }
+
+    private static void fillTables(
+            CloudNativeClusterBenchmarkStateUtil util, CheckpointParams params, PayloadGenerator payload,
+            int tableSize) throws Exception {
+
+        BulkLoader loader = BulkLoader.builder()
+                .numKeys(tableSize)
+                .numWorkers(Integer.parseInt(CONFIG.benchmark.load.threads[0]))
+                .batchSize(Integer.parseInt(CONFIG.benchmark.load.batchSize[0]))
+                .build();
+
+        util.loadTables(loader, () -> payload.generateString(params.dataSize));
+    }
+
+    /**
+     * A fresh runtime opens a trimmed table and syncs it: the table is loaded from its checkpoint
+     */
+    private static ColdLoad coldLoad(CloudNativeClusterBenchmarkStateUtil util, String tableName) throws Exception {
+        CorfuRuntime runtime = util.buildCorfuClient();
+        try {
+            long start = System.nanoTime();
+            CorfuStoreAndTable storeAndTable = util.createDefaultCorfuTable(runtime, tableName);
+            int entries;
+            try (TxnContext tx = storeAndTable.store.txn(CorfuStoreAndTable.NAMESPACE)) {
+                entries = tx.count(storeAndTable.table);
+                tx.commit();
+            }
+            return new ColdLoad(Duration.ofNanos(System.nanoTime() - start), entries);
+        } finally {
+            runtime.shutdown();
+        }
+    }
+
+    @AllArgsConstructor
+    private static class ColdLoad {
+        private final Duration elapsed;
+        private final int entries;
+    }
+}
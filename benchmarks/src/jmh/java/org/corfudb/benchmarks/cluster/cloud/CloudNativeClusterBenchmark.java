@@ -5,10 +5,14 @@ import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.google.common.reflect.TypeToken;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Recorder;
 import org.corfudb.benchmarks.cluster.cloud.CloudNativeClusterBenchmarkStateUtil.CorfuStoreAndTable;
+import org.corfudb.benchmarks.runtime.collections.helper.BulkLoader;
 import org.corfudb.benchmarks.runtime.collections.helper.ValueGenerator;
-import org.corfudb.benchmarks.runtime.collections.helper.ValueGenerator.DynamicValueGenerator;
-import org.corfudb.benchmarks.util.DataGenerator;
+import org.corfudb.benchmarks.runtime.collections.helper.ValueGenerator.PayloadValueGenerator;
+import org.corfudb.benchmarks.util.KeyDistribution;
+import org.corfudb.benchmarks.util.PayloadGenerator;
+import org.corfudb.benchmarks.util.PayloadType;
 import org.corfudb.protocols.wireprotocol.Token;
 import org.corfudb.runtime.CorfuCompactorManagement.StringKey;
 import org.corfudb.runtime.CorfuRuntime;
@@ -25,15 +29,19 @@ import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Group;
 import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
 import org.openjdk.jmh.results.format.ResultFormatType;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.openjdk.jmh.runner.options.TimeValue;
@@ -42,6 +50,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -70,13 +79,14 @@ public class CloudNativeClusterBenchmark {
 
         String benchmarkName = CloudNativeClusterBenchmark.class.getSimpleName();
 
-        String benchmarkFileName = benchmarkName + "-" + System.currentTimeMillis() + ".csv";
+        String runName = benchmarkName + "-" + System.currentTimeMillis();
+        String benchmarkFileName = runName + ".csv";
         Path benchmarksReportFile = Paths.get("/", "var", "log", "corfu", benchmarkFileName);
         benchmarksReportFile.toFile().getParentFile().mkdirs();
 
         log.info("Start " + benchmarkName);
 
-        Options opt = new OptionsBuilder()
+        ChainedOptionsBuilder optionsBuilder = new OptionsBuilder()
                 .include(benchmarkName)
                 .shouldFailOnError(true)
 
@@ -91,6 +101,15 @@ public class CloudNativeClusterBenchmark {
 
                 .param("getNumRuntimes", CONFIG.benchmark.get.getNumRuntimes)
                 .param("getNumTables", CONFIG.benchmark.get.getNumTables)
+                .param("tableSize", CONFIG.benchmark.get.tableSize)
+
+                .param("loadThreads", CONFIG.benchmark.load.threads)
+                .param("loadBatchSize", CONFIG.benchmark.load.batchSize)
+
+                .param("payloadType", CONFIG.benchmark.payload.types)
+                .param("compressionRatio", CONFIG.benchmark.payload.compressionRatio)
+                .param("keyDistribution", CONFIG.benchmark.keys.distribution)
+                .param("putKeySpace", CONFIG.benchmark.keys.putKeySpace)
 
                 .warmupIterations(CONFIG.benchmark.warmup.iterations)
                 .warmupTime(TimeValue.minutes(CONFIG.benchmark.warmup.timeInMinutes))
@@ -100,7 +119,16 @@ public class CloudNativeClusterBenchmark {
 
                 .threads(CONFIG.benchmark.threads)
                 .forks(CONFIG.benchmark.forks)
+                .timeUnit(TimeUnit.valueOf(CONFIG.benchmark.latency.timeUnit));
 
+        for (String mode : CONFIG.benchmark.latency.modes) {
+            optionsBuilder.mode(Mode.deepValueOf(mode));
+        }
+
+        Path reportDir = benchmarksReportFile.getParent();
+        List<String> forkArgs = LatencyHistograms.jvmArgs(CONFIG.benchmark.latency, reportDir, runName);
+        Options opt = BenchmarkProfilers
+                .attach(optionsBuilder, CONFIG.benchmark.profilers, reportDir, runName, forkArgs)
                 .build();
 
         new Runner(opt).run();
@@ -131,42 +159,59 @@ public class CloudNativeClusterBenchmark {
         public int getNumRuntimes;
         @Param({"1"})
         public int getNumTables;
-
-        private final int tableSize = 10_000;
+        @Param({"ascii"})
+        public String payloadType;
+        @Param({"4"})
+        public int compressionRatio;
+        @Param({"uniform"})
+        public String keyDistribution;
+        @Param({"10000"})
+        public int tableSize;
+        @Param({"8"})
+        public int loadThreads;
+        @Param({"1000"})
+        public int loadBatchSize;
+
+        private KeyDistribution keys;
 
         private final CloudNativeClusterBenchmarkStateUtil util = new CloudNativeClusterBenchmarkStateUtil();
 
+        private final LatencyHistograms histograms = LatencyHistograms.fromSystemProperties();
+
+        private Recorder latency;
+
         /**
          * Init benchmark state
          */
         @Setup
-        public void init() throws Exception {
+        public void init(BenchmarkParams params) throws Exception {
             log.info("Init benchmark state");
             util.initRuntimesAndTables(getNumRuntimes, getNumTables);
+            keys = KeyDistribution.of(keyDistribution, tableSize);
+            latency = histograms.recorder(LatencyHistograms.operation("get", params));
             fillTable();
         }
 
+        @TearDown(Level.Iteration)
+        public void endIteration(IterationParams iteration) {
+            histograms.endIteration(iteration);
+        }
+
         /**
-         * Fill corfu table with random values
+         * Fill corfu tables with random values: every table is loaded by loadThreads threads spread over
+         * the runtimes, every transaction writes loadBatchSize records
          */
-        public void fillTable() {
-            ValueGenerator valueGenerator = new DynamicValueGenerator(dataSizeForGetOperation);
-
-            for (int i = 0; i < getTableSize(); i++) {
-                for (CorfuStoreAndTable storeAndTable : util.tables) {
-                    Uuid key = Uuid.newBuilder()
-                            .setMsb(i)
-                            .setLsb(i)
-                            .build();
-                    StringKey value = StringKey.newBuilder()
-                            .setKey(valueGenerator.value())
-                            .build();
-                    try (TxnContext tx = storeAndTable.store.txn(CloudNativeClusterBenchmarkStateUtil.CorfuStoreAndTable.NAMESPACE)) {
-                        tx.putRecord(storeAndTable.table, key, value, null);
-                        tx.commit();
-                    }
-                }
-            }
+        public void fillTable() throws Exception {
+            PayloadGenerator payload = PayloadGenerator.of(PayloadType.fromName(payloadType), compressionRatio);
+            ValueGenerator valueGenerator = new PayloadValueGenerator(payload, dataSizeForGetOperation);
+
+            BulkLoader loader = BulkLoader.builder()
+                    .numKeys(getTableSize())
+                    .numWorkers(loadThreads)
+                    .batchSize(loadBatchSize)
+                    .build();
+
+            util.loadTables(loader, valueGenerator::value);
         }
 
         /**
@@ -174,6 +219,8 @@ public class CloudNativeClusterBenchmark {
          */
         @TearDown
         public void tearDown() {
+            histograms.close();
+
             for (CorfuStoreAndTable storeAndTable : util.tables) {
                 storeAndTable.table.clearAll();
             }
@@ -197,26 +244,49 @@ public class CloudNativeClusterBenchmark {
         public int putNumRuntimes;
         @Param({"1"})
         public int putNumTables;
+        @Param({"ascii"})
+        public String payloadType;
+        @Param({"4"})
+        public int compressionRatio;
+        @Param({"uniform"})
+        public String keyDistribution;
+        @Param({"2147483647"})
+        public int putKeySpace;
 
         private String data;
 
+        private KeyDistribution keys;
+
         private final CloudNativeClusterBenchmarkStateUtil util = new CloudNativeClusterBenchmarkStateUtil();
 
+        private final LatencyHistograms histograms = LatencyHistograms.fromSystemProperties();
+
+        private Recorder latency;
+
         /**
          * Init benchmark state
          */
         @Setup
-        public void init() throws Exception {
+        public void init(BenchmarkParams params) throws Exception {
             log.info("Init benchmark state");
-            data = DataGenerator.generateDataString(dataSize);
+            data = PayloadGenerator.of(PayloadType.fromName(payloadType), compressionRatio).generateString(dataSize);
+            keys = KeyDistribution.of(keyDistribution, putKeySpace);
+            latency = histograms.recorder(LatencyHistograms.operation("put", params));
             util.initRuntimesAndTables(putNumRuntimes, putNumTables);
         }
 
+        @TearDown(Level.Iteration)
+        public void endIteration(IterationParams iteration) {
+            histograms.endIteration(iteration);
+        }
+
         /**
          * Tear down the state after the benchmark is finished
          */
         @TearDown
         public void tearDown() {
+            histograms.close();
+
             for (CorfuStoreAndTable storeAndTable : util.tables) {
                 storeAndTable.table.clearAll();
             }
@@ -241,17 +311,20 @@ public class CloudNativeClusterBenchmark {
                 .setKey(state.data)
                 .build();
 
-        int keyId = state.util.rnd.nextInt(state.util.rnd.nextInt(Integer.MAX_VALUE));
+        int keyId = state.keys.nextKey();
         Uuid key = Uuid.newBuilder()
                 .setMsb(keyId)
                 .setLsb(keyId)
                 .build();
 
         CorfuStoreAndTable storeAndTable = state.util.getRandomTable(state.putNumTables);
+        long start = System.nanoTime();
         try (TxnContext tx = storeAndTable.store.txn(CloudNativeClusterBenchmarkStateUtil.CorfuStoreAndTable.NAMESPACE)) {
             tx.putRecord(storeAndTable.table, key, value, null);
             tx.commit();
         }
+        LatencyHistograms.record(state.latency, start);
+        state.keys.onInsert(keyId);
     }
 
     @Benchmark
@@ -260,16 +333,18 @@ public class CloudNativeClusterBenchmark {
     @GroupThreads(9)
     public void getOperation(ClusterBenchmarkStateForGet state) {
 
-        int keyId = state.util.rnd.nextInt(state.tableSize - 1);
+        int keyId = state.keys.nextKey();
         Uuid key = Uuid.newBuilder()
                 .setMsb(keyId)
                 .setLsb(keyId)
                 .build();
         CorfuStoreAndTable storeAndTable = state.util.getRandomTable(state.getNumTables);
+        long start = System.nanoTime();
         try (TxnContext tx = storeAndTable.store.txn(CloudNativeClusterBenchmarkStateUtil.CorfuStoreAndTable.NAMESPACE)) {
             tx.getRecord(storeAndTable.table, key);
             tx.commit();
         }
+        LatencyHistograms.record(state.latency, start);
     }
 
 }
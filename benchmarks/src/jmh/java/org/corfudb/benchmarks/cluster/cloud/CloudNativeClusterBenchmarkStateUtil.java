@@ -2,13 +2,18 @@ package org.corfudb.benchmarks.cluster.cloud;
 
 import com.google.common.reflect.TypeToken;
 import com.google.protobuf.Message;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
+import org.corfudb.benchmarks.runtime.collections.helper.BulkLoader;
 import org.corfudb.protocols.wireprotocol.Token;
 import org.corfudb.runtime.CorfuCompactorManagement.StringKey;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.CorfuRuntime.CorfuRuntimeParameters.CorfuRuntimeParametersBuilder;
+import org.corfudb.runtime.CorfuStoreMetadata.TableName;
 import org.corfudb.runtime.MultiCheckpointWriter;
 import org.corfudb.runtime.collections.CorfuDynamicKey;
 import org.corfudb.runtime.collections.CorfuDynamicRecord;
@@ -16,6 +21,7 @@ import org.corfudb.runtime.collections.CorfuStore;
 import org.corfudb.runtime.collections.PersistentCorfuTable;
 import org.corfudb.runtime.collections.Table;
 import org.corfudb.runtime.collections.TableOptions;
+import org.corfudb.runtime.collections.TxnContext;
 import org.corfudb.runtime.view.ObjectOpenOption;
 import org.corfudb.runtime.view.TableRegistry;
 import org.corfudb.util.NodeLocator;
@@ -25,9 +31,13 @@ import org.corfudb.utils.CommonTypes.Uuid;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Slf4j
 public class CloudNativeClusterBenchmarkStateUtil {
@@ -49,11 +59,47 @@ public class CloudNativeClusterBenchmarkStateUtil {
         );
 
         return CorfuStoreAndTable.builder()
+                .name(tableName)
                 .store(store)
                 .table(table)
                 .build();
     }
 
+    /**
+     * Fill the tables with the bulk loader: the batches of every table are spread over all the runtimes,
+     * worker w writes its batches through the table opened by the runtime w % numRuntimes.
+     * Record i is the key (i, i) with a value of the value generator.
+     *
+     * @param loader bulk loader
+     * @param values value generator
+     * @throws Exception corfu store exception
+     */
+    public void loadTables(BulkLoader loader, Supplier<String> values) throws Exception {
+        for (CorfuStoreAndTable storeAndTable : tables) {
+            List<CorfuStoreAndTable> runtimeTables = new ArrayList<>();
+            for (CorfuRuntime runtime : corfuClients) {
+                runtimeTables.add(createDefaultCorfuTable(runtime, storeAndTable.name));
+            }
+
+            loader.load(storeAndTable.table.getFullyQualifiedTableName(), (worker, from, to) -> {
+                CorfuStoreAndTable runtimeTable = runtimeTables.get(worker % runtimeTables.size());
+                try (TxnContext tx = runtimeTable.store.txn(CorfuStoreAndTable.NAMESPACE)) {
+                    for (int i = from; i < to; i++) {
+                        Uuid key = Uuid.newBuilder()
+                                .setMsb(i)
+                                .setLsb(i)
+                                .build();
+                        StringKey value = StringKey.newBuilder()
+                                .setKey(values.get())
+                                .build();
+                        tx.putRecord(runtimeTable.table, key, value, null);
+                    }
+                    tx.commit();
+                }
+            });
+        }
+    }
+
     protected CorfuRuntime buildCorfuClient() {
         String namespace = Optional
                 .ofNullable(System.getenv("POD_NAMESPACE"))
@@ -95,11 +141,19 @@ public class CloudNativeClusterBenchmarkStateUtil {
         return corfuClients.get(rnd.nextInt(numRuntimes));
     }
 
-    public void checkpointing(int numRuntimes) {
-        log.info("Shutdown. Execute checkpointing");
-        DynamicProtobufSerializer dynamicProtobufSerializer = new DynamicProtobufSerializer(getRandomRuntime(numRuntimes));
+    /**
+     * Checkpoint every table of the table registry (and the registry itself), trim the log at the checkpoint
+     * and run the address space gc. The trim is global, so like the corfu compactor all the tables of the cluster
+     * are checkpointed, not only the benchmark tables, otherwise the trim would lose the data of other tables.
+     * The checkpoint is written by a dedicated runtime, the runtimes of the benchmark are not affected.
+     *
+     * @return duration of every phase of the cycle
+     */
+    public CheckpointResult checkpointing() {
+        log.info("Execute checkpointing");
+        CorfuRuntime runtime = buildCorfuClient();
+        DynamicProtobufSerializer dynamicProtobufSerializer = new DynamicProtobufSerializer(runtime);
 
-        CorfuRuntime runtime = getRandomRuntime(numRuntimes);
         MultiCheckpointWriter<PersistentCorfuTable<CorfuDynamicKey, CorfuDynamicRecord>> mcw = new MultiCheckpointWriter<>();
 
         runtime.getSerializers().registerSerializer(dynamicProtobufSerializer);
@@ -128,25 +182,88 @@ public class CloudNativeClusterBenchmarkStateUtil {
                 .addOpenOption(ObjectOpenOption.CACHE)
                 .open();
 
-        for (CorfuStoreAndTable storeAndTable : tables) {
+        Set<String> registeredTables = new LinkedHashSet<>();
+        for (TableName tableName : new CorfuStore(runtime).listTables(null)) {
+            registeredTables.add(TableRegistry.getFullyQualifiedTableName(
+                    tableName.getNamespace(), tableName.getTableName()
+            ));
+        }
+        registeredTables.remove(registryStreamName);
+        registeredTables.remove(descriptorTableName);
+
+        Set<String> benchmarkTables = tables.stream()
+                .map(storeAndTable -> storeAndTable.table.getFullyQualifiedTableName())
+                .collect(Collectors.toSet());
+
+        List<PersistentCorfuTable<CorfuDynamicKey, CorfuDynamicRecord>> checkpointedTables = new ArrayList<>();
+        List<PersistentCorfuTable<CorfuDynamicKey, CorfuDynamicRecord>> corfuTables = new ArrayList<>();
+        for (String tableName : registeredTables) {
             PersistentCorfuTable<CorfuDynamicKey, CorfuDynamicRecord> corfuTable = runtime.getObjectsView().build()
                     .setTypeToken(new TypeToken<PersistentCorfuTable<CorfuDynamicKey, CorfuDynamicRecord>>() {
                     })
-                    .setStreamName(storeAndTable.table.getFullyQualifiedTableName())
+                    .setStreamName(tableName)
                     .setSerializer(dynamicProtobufSerializer)
                     .addOpenOption(ObjectOpenOption.CACHE)
                     .open();
 
             mcw.addMap(corfuTable);
+            checkpointedTables.add(corfuTable);
+            if (benchmarkTables.contains(tableName)) {
+                corfuTables.add(corfuTable);
+            }
         }
+        log.info("Checkpoint {} registered tables, {} benchmark tables", registeredTables.size(), corfuTables.size());
         mcw.addMap(tableRegistry);
         mcw.addMap(descriptorTable);
+
+        long start = System.nanoTime();
         Token trimPoint = mcw.appendCheckpoints(runtime, "checkpointer");
+        Duration checkpoint = Duration.ofNanos(System.nanoTime() - start);
 
+        start = System.nanoTime();
         runtime.getAddressSpaceView().prefixTrim(trimPoint);
+        Duration trim = Duration.ofNanos(System.nanoTime() - start);
+
+        start = System.nanoTime();
         runtime.getAddressSpaceView().gc();
+        Duration gc = Duration.ofNanos(System.nanoTime() - start);
+
+        long entries = corfuTables.stream()
+                .mapToLong(PersistentCorfuTable::size)
+                .sum();
+        long totalEntries = checkpointedTables.stream()
+                .mapToLong(PersistentCorfuTable::size)
+                .sum();
+
         runtime.getSerializers().clearCustomSerializers();
         runtime.shutdown();
+
+        CheckpointResult result = new CheckpointResult(
+                entries, totalEntries, trimPoint.getSequence(), checkpoint, trim, gc
+        );
+        log.info("Checkpoint finished: {}", result);
+        return result;
+    }
+
+    /**
+     * Checkpoint cycle statistics
+     */
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class CheckpointResult {
+        /**
+         * Number of checkpointed entries of the benchmark tables
+         */
+        private final long entries;
+        /**
+         * Number of checkpointed entries of all the registered tables
+         */
+        private final long totalEntries;
+        private final long trimAddress;
+        private final Duration checkpoint;
+        private final Duration trim;
+        private final Duration gc;
     }
 
     /**
@@ -162,6 +279,8 @@ public class CloudNativeClusterBenchmarkStateUtil {
     public static final class CorfuStoreAndTable {
         public static final String NAMESPACE = "namespace";
 
+        @NonNull
+        public String name;
         @NonNull
         public Table<Uuid, StringKey, Message> table;
         @NonNull
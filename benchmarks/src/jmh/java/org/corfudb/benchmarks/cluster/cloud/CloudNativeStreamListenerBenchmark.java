@@ -0,0 +1,52 @@
+package org.corfudb.benchmarks.cluster.cloud;
+
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.benchmarks.cluster.StreamListenerBenchmark;
+import org.corfudb.benchmarks.cluster.cloud.BenchmarkConfig.StreamListenerParams;
+import org.corfudb.runtime.CorfuRuntime;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static org.corfudb.benchmarks.cluster.cloud.CloudNativeClusterBenchmark.CONFIG;
+
+/**
+ * {@link StreamListenerBenchmark} against the cloud native deployment,
+ * configured by the `benchmark.streamListener` section of config.yaml.
+ * The results are saved into /var/log/corfu.
+ * see: docs/benchmarks/corfu-cloud-native-cluster.md
+ */
+@Slf4j
+public class CloudNativeStreamListenerBenchmark {
+
+    /**
+     * Cloud native stream listener benchmark
+     *
+     * @param args args
+     * @throws Exception corfu exception
+     */
+    public static void main(String[] args) throws Exception {
+        String benchmarkName = CloudNativeStreamListenerBenchmark.class.getSimpleName();
+        StreamListenerParams params = CONFIG.benchmark.streamListener;
+        log.info("Start {}: {}", benchmarkName, params);
+
+        Path report = Paths.get("/", "var", "log", "corfu", benchmarkName + "-" + System.currentTimeMillis() + ".csv");
+
+        CloudNativeClusterBenchmarkStateUtil util = new CloudNativeClusterBenchmarkStateUtil();
+        try {
+            for (int i = 0; i < params.numRuntimes; i++) {
+                util.corfuClients.add(util.buildCorfuClient());
+            }
+
+            new StreamListenerBenchmark(util.corfuClients, params).run(report);
+            log.info("Finishing benchmark! Results: {}", report);
+        } finally {
+            for (CorfuRuntime corfuClient : util.corfuClients) {
+                corfuClient.shutdown();
+            }
+        }
+
+        TimeUnit.MINUTES.sleep(CONFIG.benchmark.coolOffPeriodMinutes);
+    }
+}
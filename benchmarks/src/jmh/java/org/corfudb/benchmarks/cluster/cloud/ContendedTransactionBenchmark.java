@@ -0,0 +1,261 @@
+package org.corfudb.benchmarks.cluster.cloud;
+
+import com.google.protobuf.Message;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Recorder;
+import org.corfudb.benchmarks.cluster.cloud.BenchmarkConfig.ContentionParams;
+import org.corfudb.benchmarks.cluster.cloud.CloudNativeClusterBenchmarkStateUtil.CorfuStoreAndTable;
+import org.corfudb.runtime.CorfuCompactorManagement.StringKey;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.collections.CorfuStoreEntry;
+import org.corfudb.runtime.collections.TxnContext;
+import org.corfudb.runtime.exceptions.TransactionAbortedException;
+import org.corfudb.utils.CommonTypes.Uuid;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.corfudb.benchmarks.cluster.cloud.CloudNativeClusterBenchmark.CONFIG;
+
+/**
+ * Optimistic concurrency under contention: threads of several runtimes run read-modify-write transactions
+ * over a set of hot keys, a transaction that aborts is retried up to maxRetries times.
+ * The smaller the hot key set, the more transactions conflict.
+ * <p>
+ * The primary result is the rate of read-modify-write operations, the aux counters split it into
+ * commits (goodput), aborts by cause and operations that failed after all the retries.
+ * The latency of an operation including its retries is recorded by {@link LatencyHistograms}.
+ * see: docs/benchmarks/corfu-cloud-native-cluster.md
+ */
+@Slf4j
+public class ContendedTransactionBenchmark {
+
+    /**
+     * Contended transactions benchmark, always in throughput mode: the aux counters are rates
+     *
+     * @param args args
+     * @throws Exception jmh exception
+     */
+    public static void main(String[] args) throws Exception {
+        log.info("Run corfu contended transactions benchmark");
+
+        String benchmarkName = ContendedTransactionBenchmark.class.getSimpleName();
+
+        String runName = benchmarkName + "-" + System.currentTimeMillis();
+        Path benchmarksReportFile = Paths.get("/", "var", "log", "corfu", runName + ".csv");
+        benchmarksReportFile.toFile().getParentFile().mkdirs();
+
+        ContentionParams contention = CONFIG.benchmark.contention;
+        ChainedOptionsBuilder optionsBuilder = new OptionsBuilder()
+                .include(benchmarkName)
+                .shouldFailOnError(true)
+
+                .resultFormat(ResultFormatType.CSV)
+                .result(benchmarksReportFile.toString())
+
+                .param("hotKeys", contention.hotKeys)
+                .param("keysPerTxn", contention.keysPerTxn)
+                .param("numRuntimes", contention.numRuntimes)
+                .param("maxRetries", contention.maxRetries)
+
+                .warmupIterations(CONFIG.benchmark.warmup.iterations)
+                .warmupTime(TimeValue.minutes(CONFIG.benchmark.warmup.timeInMinutes))
+
+                .measurementIterations(CONFIG.benchmark.measurement.iterations)
+                .measurementTime(TimeValue.minutes(CONFIG.benchmark.measurement.timeInMinutes))
+
+                .threads(CONFIG.benchmark.threads)
+                .forks(CONFIG.benchmark.forks);
+
+        Path reportDir = benchmarksReportFile.getParent();
+        List<String> forkArgs = LatencyHistograms.jvmArgs(CONFIG.benchmark.latency, reportDir, runName);
+        Options opt = BenchmarkProfilers
+                .attach(optionsBuilder, CONFIG.benchmark.profilers, reportDir, runName, forkArgs)
+                .build();
+
+        new Runner(opt).run();
+
+        log.info("Finishing benchmark!");
+        TimeUnit.MINUTES.sleep(CONFIG.benchmark.coolOffPeriodMinutes);
+    }
+
+    @State(Scope.Benchmark)
+    @Getter
+    @Slf4j
+    public static class ContentionState {
+        /**
+         * Number of keys the transactions compete for
+         */
+        @Param({"100"})
+        public int hotKeys;
+        /**
+         * Number of keys read and written by a transaction
+         */
+        @Param({"1"})
+        public int keysPerTxn;
+        @Param({"1"})
+        public int numRuntimes;
+        @Param({"10"})
+        public int maxRetries;
+
+        private final CloudNativeClusterBenchmarkStateUtil util = new CloudNativeClusterBenchmarkStateUtil();
+
+        private final LatencyHistograms histograms = LatencyHistograms.fromSystemProperties();
+
+        private Recorder latency;
+
+        /**
+         * A table per runtime: all the tables are the same stream, opened by different runtimes
+         */
+        @Setup
+        public void init(BenchmarkParams params) throws Exception {
+            log.info("Init benchmark state");
+            util.initRuntimesAndTables(numRuntimes, 0);
+            for (CorfuRuntime runtime : util.corfuClients) {
+                util.tables.add(util.createDefaultCorfuTable(runtime, "contended"));
+            }
+
+            CorfuStoreAndTable storeAndTable = util.tables.get(0);
+            try (TxnContext tx = storeAndTable.store.txn(CorfuStoreAndTable.NAMESPACE)) {
+                for (int i = 0; i < hotKeys; i++) {
+                    tx.putRecord(storeAndTable.table, key(i), counter(0), null);
+                }
+                tx.commit();
+            }
+
+            latency = histograms.recorder(LatencyHistograms.operation("rmw", params));
+        }
+
+        @TearDown(Level.Iteration)
+        public void endIteration(IterationParams iteration) {
+            histograms.endIteration(iteration);
+        }
+
+        @TearDown
+        public void tearDown() {
+            histograms.close();
+
+            util.tables.get(0).table.clearAll();
+            for (CorfuRuntime corfuClient : util.corfuClients) {
+                corfuClient.shutdown();
+            }
+        }
+
+        static Uuid key(int id) {
+            return Uuid.newBuilder()
+                    .setMsb(id)
+                    .setLsb(id)
+                    .build();
+        }
+
+        static StringKey counter(long value) {
+            return StringKey.newBuilder()
+                    .setKey(String.valueOf(value))
+                    .build();
+        }
+    }
+
+    /**
+     * Transaction outcomes of a thread, reported per second.
+     * A commit is a useful operation (goodput), every abort is split by its cause.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class TxnCounters {
+        public long commits;
+        public long conflictAborts;
+        public long sequencerAborts;
+        public long otherAborts;
+        /**
+         * Operations aborted maxRetries + 1 times
+         */
+        public long failures;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            commits = 0;
+            conflictAborts = 0;
+            sequencerAborts = 0;
+            otherAborts = 0;
+            failures = 0;
+        }
+
+        void abort(TransactionAbortedException e) {
+            switch (e.getAbortCause()) {
+                case CONFLICT:
+                    conflictAborts++;
+                    break;
+                case NEW_SEQUENCER:
+                    sequencerAborts++;
+                    break;
+                default:
+                    otherAborts++;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Increment keysPerTxn random hot counters in a transaction, retry the transaction on abort.
+     * The counters are chosen once, every retry increments the same counters as the aborted transaction.
+     *
+     * @param state    benchmark state
+     * @param counters transaction outcomes
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void readModifyWrite(ContentionState state, TxnCounters counters) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        CorfuStoreAndTable storeAndTable = state.util.tables.get(rnd.nextInt(state.numRuntimes));
+
+        Uuid[] keys = new Uuid[state.keysPerTxn];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ContentionState.key(rnd.nextInt(state.hotKeys));
+        }
+
+        long start = System.nanoTime();
+        for (int attempt = 0; attempt <= state.maxRetries; attempt++) {
+            try (TxnContext tx = storeAndTable.store.txn(CorfuStoreAndTable.NAMESPACE)) {
+                for (Uuid key : keys) {
+                    CorfuStoreEntry<Uuid, StringKey, Message> entry = tx.getRecord(storeAndTable.table, key);
+                    long value = entry.getPayload() == null ? 0 : Long.parseLong(entry.getPayload().getKey());
+                    tx.putRecord(storeAndTable.table, key, ContentionState.counter(value + 1), null);
+                }
+                tx.commit();
+
+                counters.commits++;
+                LatencyHistograms.record(state.latency, start);
+                return;
+            } catch (TransactionAbortedException e) {
+                counters.abort(e);
+            }
+        }
+
+        counters.failures++;
+        LatencyHistograms.record(state.latency, start);
+    }
+}
@@ -0,0 +1,195 @@
+package org.corfudb.benchmarks.cluster.cloud;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-operation latency histograms of the cluster benchmarks, independent of the jmh mode.
+ * <p>
+ * Operations record their latency into HdrHistogram recorders (wait-free writers), at the end of every
+ * measurement iteration the interval histograms are appended to a histogram log per operation and fork:
+ * {@code <dir>/<run>-<operation>-<pid>.hlog}. Logs of all the forks and pods can be merged
+ * with HdrHistogram's HistogramLogProcessor. At the end of a trial the percentiles of every operation
+ * are appended to {@code <dir>/<run>-latency.csv}.
+ * <p>
+ * The histogram directory and the run name are passed to the forks as system properties,
+ * the histograms are not saved without them.
+ */
+@Slf4j
+public class LatencyHistograms {
+    public static final String DIR_PROPERTY = "corfu.benchmark.histograms.dir";
+    public static final String RUN_PROPERTY = "corfu.benchmark.run";
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final String CSV_HEADER = "operation,pid,count,p50Us,p90Us,p99Us,p999Us,maxUs\n";
+
+    private final Path dir;
+    private final String runName;
+
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> totals = new ConcurrentHashMap<>();
+    private final Map<String, HistogramLogWriter> logs = new ConcurrentHashMap<>();
+
+    private LatencyHistograms(Path dir, String runName) {
+        this.dir = dir;
+        this.runName = runName;
+    }
+
+    /**
+     * Jvm args of the forks
+     *
+     * @param params  latency config
+     * @param dir     histograms directory
+     * @param runName prefix of the histogram files
+     * @return jvm args, empty if the histograms are disabled
+     */
+    public static List<String> jvmArgs(BenchmarkConfig.LatencyParams params, Path dir, String runName) {
+        if (!params.histograms) {
+            return List.of();
+        }
+
+        return List.of("-D" + DIR_PROPERTY + "=" + dir, "-D" + RUN_PROPERTY + "=" + runName);
+    }
+
+    /**
+     * Histograms of a fork, configured by the system properties
+     *
+     * @return latency histograms
+     */
+    public static LatencyHistograms fromSystemProperties() {
+        String dir = System.getProperty(DIR_PROPERTY);
+        String runName = System.getProperty(RUN_PROPERTY);
+        return new LatencyHistograms(dir == null ? null : Paths.get(dir), runName);
+    }
+
+    /**
+     * Name of an operation of a trial: the operation, the jmh mode and all the params of the trial,
+     * like: put-thrpt-dataSize1024-keyDistributionuniform-putNumTables16
+     * (the params are sorted by name), so the trials of a run never share a histogram
+     *
+     * @param operation operation
+     * @param params    jmh benchmark params
+     * @return operation name of the trial
+     */
+    public static String operation(String operation, BenchmarkParams params) {
+        StringBuilder name = new StringBuilder(operation)
+                .append('-')
+                .append(params.getMode().shortLabel());
+        for (String param : params.getParamsKeys()) {
+            name.append('-').append(param).append(params.getParam(param));
+        }
+        return name.toString();
+    }
+
+    /**
+     * Recorder of an operation, see {@link #operation(String, BenchmarkParams)}
+     *
+     * @param operation operation name
+     * @return latency recorder, values are in nanoseconds
+     */
+    public Recorder recorder(String operation) {
+        return recorders.computeIfAbsent(operation, op -> new Recorder(SIGNIFICANT_DIGITS));
+    }
+
+    /**
+     * Record the latency of an operation
+     *
+     * @param recorder   operation recorder
+     * @param startNanos {@link System#nanoTime()} at the start of the operation
+     */
+    public static void record(Recorder recorder, long startNanos) {
+        recorder.recordValue(Math.max(0, System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Collect the interval histograms of an iteration, warmup iterations are discarded
+     *
+     * @param iteration jmh iteration params
+     */
+    public void endIteration(IterationParams iteration) {
+        boolean measurement = iteration.getType() == IterationType.MEASUREMENT;
+
+        recorders.forEach((operation, recorder) -> {
+            Histogram interval = recorder.getIntervalHistogram();
+            if (!measurement || dir == null) {
+                return;
+            }
+
+            logs.computeIfAbsent(operation, this::openLog).outputIntervalHistogram(interval);
+            totals.computeIfAbsent(operation, op -> new Histogram(SIGNIFICANT_DIGITS)).add(interval);
+        });
+    }
+
+    /**
+     * Close the histogram logs and save the percentiles of every operation
+     */
+    public void close() {
+        logs.values().forEach(HistogramLogWriter::close);
+        logs.clear();
+
+        if (dir == null || totals.isEmpty()) {
+            return;
+        }
+
+        StringBuilder rows = new StringBuilder();
+        long pid = ProcessHandle.current().pid();
+        totals.forEach((operation, histogram) -> {
+            rows.append(String.join(",",
+                    operation,
+                    String.valueOf(pid),
+                    String.valueOf(histogram.getTotalCount()),
+                    micros(histogram.getValueAtPercentile(50)),
+                    micros(histogram.getValueAtPercentile(90)),
+                    micros(histogram.getValueAtPercentile(99)),
+                    micros(histogram.getValueAtPercentile(99.9)),
+                    micros(histogram.getMaxValue())
+            )).append("\n");
+        });
+        log.info("Latency percentiles:\n{}", CSV_HEADER + rows);
+
+        Path summary = dir.resolve(runName + "-latency.csv");
+        try {
+            Files.createDirectories(dir);
+            if (!Files.exists(summary)) {
+                Files.write(summary, CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+            }
+            Files.write(summary, rows.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new IllegalStateException("can't save latency percentiles: " + summary, e);
+        }
+    }
+
+    private HistogramLogWriter openLog(String operation) {
+        Path logFile = dir.resolve(runName + "-" + operation + "-" + ProcessHandle.current().pid() + ".hlog");
+        try {
+            Files.createDirectories(dir);
+            HistogramLogWriter writer = new HistogramLogWriter(logFile.toFile());
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(System.currentTimeMillis());
+            writer.outputLegend();
+            return writer;
+        } catch (IOException e) {
+            throw new IllegalStateException("can't open histogram log: " + logFile, e);
+        }
+    }
+
+    private static String micros(long nanos) {
+        return String.valueOf(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+}
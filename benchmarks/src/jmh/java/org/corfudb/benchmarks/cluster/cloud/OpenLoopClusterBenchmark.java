@@ -0,0 +1,120 @@
+package org.corfudb.benchmarks.cluster.cloud;
+
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.benchmarks.cluster.cloud.BenchmarkConfig.OpenLoopParams;
+import org.corfudb.benchmarks.cluster.cloud.CloudNativeClusterBenchmarkStateUtil.CorfuStoreAndTable;
+import org.corfudb.benchmarks.cluster.cloud.OpenLoopLoadGenerator.StepResult;
+import org.corfudb.benchmarks.runtime.collections.helper.BulkLoader;
+import org.corfudb.benchmarks.util.KeyDistribution;
+import org.corfudb.benchmarks.util.PayloadGenerator;
+import org.corfudb.benchmarks.util.PayloadType;
+import org.corfudb.runtime.CorfuCompactorManagement.StringKey;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.collections.TxnContext;
+import org.corfudb.utils.CommonTypes.Uuid;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.corfudb.benchmarks.cluster.cloud.CloudNativeClusterBenchmark.CONFIG;
+
+/**
+ * Open-loop counterpart of {@link CloudNativeClusterBenchmark}: a get/put mix is issued at the fixed rates
+ * of the `benchmark.openLoop` section of config.yaml, the latency is measured from the intended start time
+ * of every operation, see {@link OpenLoopLoadGenerator}.
+ * The results of the rate steps (achieved throughput, percentiles, saturation) are saved into /var/log/corfu.
+ * see: docs/benchmarks/corfu-cloud-native-cluster.md
+ */
+@Slf4j
+public class OpenLoopClusterBenchmark {
+
+    /**
+     * Open-loop cluster benchmark
+     *
+     * @param args args
+     * @throws Exception corfu exception
+     */
+    public static void main(String[] args) throws Exception {
+        String benchmarkName = OpenLoopClusterBenchmark.class.getSimpleName();
+        OpenLoopParams params = CONFIG.benchmark.openLoop;
+        log.info("Start {}: {}", benchmarkName, params);
+
+        Path report = Paths.get("/", "var", "log", "corfu", benchmarkName + "-" + System.currentTimeMillis() + ".csv");
+
+        CloudNativeClusterBenchmarkStateUtil util = new CloudNativeClusterBenchmarkStateUtil();
+        util.initRuntimesAndTables(params.numRuntimes, params.numTables);
+        try {
+            PayloadGenerator payload = PayloadGenerator.of(
+                    PayloadType.fromName(CONFIG.benchmark.payload.types[0]),
+                    Integer.parseInt(CONFIG.benchmark.payload.compressionRatio[0])
+            );
+            fillTables(util, params, payload);
+
+            StringKey value = StringKey.newBuilder()
+                    .setKey(payload.generateString(params.dataSize))
+                    .build();
+            KeyDistribution keys = KeyDistribution.of(params.keyDistribution, params.tableSize);
+
+            OpenLoopLoadGenerator generator = OpenLoopLoadGenerator.builder()
+                    .rates(params.rates)
+                    .stepDuration(Duration.ofSeconds(params.stepSeconds))
+                    .warmup(Duration.ofSeconds(params.warmupSeconds))
+                    .maxOutstanding(params.maxOutstanding)
+                    .build();
+
+            String operation = "mixed-read" + params.readRatio + "-tables" + params.numTables
+                    + "-size" + params.dataSize;
+            List<StepResult> results = generator.run(operation, () -> {
+                int keyId = keys.nextKey();
+                Uuid key = key(keyId);
+                CorfuStoreAndTable storeAndTable = util.getRandomTable(params.numTables);
+
+                boolean read = ThreadLocalRandom.current().nextDouble() < params.readRatio;
+                try (TxnContext tx = storeAndTable.store.txn(CorfuStoreAndTable.NAMESPACE)) {
+                    if (read) {
+                        tx.getRecord(storeAndTable.table, key);
+                    } else {
+                        tx.putRecord(storeAndTable.table, key, value, null);
+                    }
+                    tx.commit();
+                }
+
+                if (!read) {
+                    keys.onInsert(keyId);
+                }
+            });
+
+            OpenLoopLoadGenerator.save(report, results);
+            log.info("Finishing benchmark! Results: {}", report);
+        } finally {
+            for (CorfuRuntime corfuClient : util.corfuClients) {
+                corfuClient.shutdown();
+            }
+        }
+
+        TimeUnit.MINUTES.sleep(CONFIG.benchmark.coolOffPeriodMinutes);
+    }
+
+    private static void fillTables(
+            CloudNativeClusterBenchmarkStateUtil util, OpenLoopParams params, PayloadGenerator payload)
+            throws Exception {
+        BulkLoader loader = BulkLoader.builder()
+                .numKeys(params.tableSize)
+                .numWorkers(Integer.parseInt(CONFIG.benchmark.load.threads[0]))
+                .batchSize(Integer.parseInt(CONFIG.benchmark.load.batchSize[0]))
+                .build();
+
+        util.loadTables(loader, () -> payload.generateString(params.dataSize));
+    }
+
+    private static Uuid key(int id) {
+        return Uuid.newBuilder()
+                .setMsb(id)
+                .setLsb(id)
+                .build();
+    }
+}
@@ -0,0 +1,314 @@
+package org.corfudb.benchmarks.cluster.cloud;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator: operations are issued on a fixed schedule at a target rate,
+ * independently of how fast the previous operations complete.
+ * <p>
+ * A closed-loop (jmh) thread waits for every operation before it issues the next one, so it issues fewer
+ * operations while corfu is slow (gc pauses, sequencer failover, checkpointing) and the slow period is
+ * under-represented in the results (coordinated omission). Here the latency of an operation is measured
+ * from its intended start time on the schedule, so the time an operation waited for its turn is included.
+ * <p>
+ * The target rate is ramped through steps, the first step that can't keep up with its rate
+ * (or whose p99 latency grows over kneeLatencyFactor times the p99 of the first step) is the saturation knee.
+ * Operations run on virtual threads, so thousands of outstanding requests are cheap,
+ * maxOutstanding bounds the number of them (the schedule is delayed, and the delay is measured, beyond it).
+ */
+@Slf4j
+public class OpenLoopLoadGenerator {
+    public static final Duration DEFAULT_STEP_DURATION = Duration.ofMinutes(1);
+    public static final int DEFAULT_MAX_OUTSTANDING = 10_000;
+    public static final double DEFAULT_RATE_TOLERANCE = 0.05;
+    public static final double DEFAULT_KNEE_LATENCY_FACTOR = 10;
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final String CSV_HEADER = "operation,targetRate,achievedRate,count,errors,"
+            + "p50Us,p90Us,p99Us,p999Us,maxUs,saturated\n";
+
+    private final List<Integer> rates;
+    private final Duration stepDuration;
+    private final Duration warmup;
+    private final int maxOutstanding;
+    private final double rateTolerance;
+    private final double kneeLatencyFactor;
+    private final StepListener stepListener;
+
+    /**
+     * Load generator
+     *
+     * @param rates             target rates of the steps, operations per second
+     * @param stepDuration      duration of every step
+     * @param warmup            warmup at the first rate, not measured
+     * @param maxOutstanding    max number of operations in flight
+     * @param rateTolerance     a step is saturated if its throughput is below (1 - rateTolerance) * rate
+     * @param kneeLatencyFactor a step is saturated if its p99 exceeds the p99 of the first step times the factor
+     * @param stepListener      notified at the start and at the end of every step
+     */
+    @Builder
+    public OpenLoopLoadGenerator(
+            @NonNull List<Integer> rates, Duration stepDuration, Duration warmup,
+            int maxOutstanding, double rateTolerance, double kneeLatencyFactor, StepListener stepListener) {
+
+        if (rates.isEmpty() || rates.stream().anyMatch(rate -> rate <= 0)) {
+            throw new IllegalArgumentException("Invalid rates: " + rates);
+        }
+
+        this.rates = rates;
+        this.stepDuration = stepDuration != null ? stepDuration : DEFAULT_STEP_DURATION;
+        this.warmup = warmup != null ? warmup : Duration.ZERO;
+        this.maxOutstanding = maxOutstanding > 0 ? maxOutstanding : DEFAULT_MAX_OUTSTANDING;
+        this.rateTolerance = rateTolerance > 0 ? rateTolerance : DEFAULT_RATE_TOLERANCE;
+        this.kneeLatencyFactor = kneeLatencyFactor > 0 ? kneeLatencyFactor : DEFAULT_KNEE_LATENCY_FACTOR;
+        this.stepListener = stepListener != null ? stepListener : new StepListener() {
+        };
+    }
+
+    /**
+     * An operation of the load
+     */
+    @FunctionalInterface
+    public interface Operation {
+
+        /**
+         * Execute the operation
+         *
+         * @throws Exception a failed operation is counted as an error, its latency is recorded too
+         */
+        void run() throws Exception;
+    }
+
+    /**
+     * Step boundaries, called by the scheduler thread. The warmup step number is -1.
+     * Operations issued in a step may complete after the end of the step.
+     */
+    public interface StepListener {
+
+        default void stepStarted(int step, int rate) {
+            //no-op
+        }
+
+        default void stepFinished(int step, int rate) {
+            //no-op
+        }
+    }
+
+    /**
+     * Run all the steps
+     *
+     * @param name      operation name, for logging and the report
+     * @param operation operation
+     * @return results of the steps
+     */
+    public List<StepResult> run(String name, @NonNull Operation operation) {
+        Semaphore outstanding = new Semaphore(maxOutstanding);
+        List<Step> steps = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (!warmup.isZero()) {
+                log.info("Warmup {}: {} ops/s, {}", name, rates.get(0), warmup);
+                stepListener.stepStarted(-1, rates.get(0));
+                runStep(new Step(rates.get(0), warmup), operation, executor, outstanding);
+                stepListener.stepFinished(-1, rates.get(0));
+            }
+
+            for (int rate : rates) {
+                log.info("Step {}: {} ops/s, {}", name, rate, stepDuration);
+                Step step = new Step(rate, stepDuration);
+                stepListener.stepStarted(steps.size(), rate);
+                runStep(step, operation, executor, outstanding);
+                stepListener.stepFinished(steps.size(), rate);
+                steps.add(step);
+            }
+            // the executor waits for the outstanding operations on close
+        }
+
+        List<StepResult> results = new ArrayList<>();
+        long baselineP99 = 0;
+        for (Step step : steps) {
+            StepResult result = step.result(name);
+            if (results.isEmpty()) {
+                baselineP99 = Math.max(1, result.p99Us);
+            }
+            result.saturated = result.achievedRate < step.rate * (1 - rateTolerance)
+                    || result.p99Us > baselineP99 * kneeLatencyFactor;
+            results.add(result);
+            log.info("Step result: {}", result);
+        }
+
+        results.stream()
+                .filter(StepResult::isSaturated)
+                .findFirst()
+                .ifPresentOrElse(
+                        knee -> log.info("Saturation knee of {}: {} ops/s", name, knee.targetRate),
+                        () -> log.info("{} is not saturated at {} ops/s", name, rates.get(rates.size() - 1))
+                );
+
+        return results;
+    }
+
+    private void runStep(Step step, Operation operation, ExecutorService executor, Semaphore outstanding) {
+        long intervalNanos = Math.max(1, TimeUnit.SECONDS.toNanos(1) / step.rate);
+        long numOperations = step.duration.toNanos() / intervalNanos;
+
+        step.start = System.nanoTime();
+        step.end = step.start + step.duration.toNanos();
+
+        for (long i = 0; i < numOperations; i++) {
+            long intendedStart = step.start + i * intervalNanos;
+            parkUntil(intendedStart);
+
+            outstanding.acquireUninterruptibly();
+            executor.execute(() -> {
+                try {
+                    operation.run();
+                } catch (Exception e) {
+                    step.errors.increment();
+                    log.debug("Operation failed", e);
+                } finally {
+                    long now = System.nanoTime();
+                    step.recorder.recordValue(Math.max(0, now - intendedStart));
+                    if (now <= step.end) {
+                        step.completedInStep.increment();
+                    }
+                    outstanding.release();
+                }
+            });
+        }
+
+        parkUntil(step.end);
+    }
+
+    /**
+     * parkNanos may return early, park until the deadline
+     */
+    private static void parkUntil(long deadlineNanos) {
+        long delay = deadlineNanos - System.nanoTime();
+        while (delay > 0) {
+            LockSupport.parkNanos(delay);
+            delay = deadlineNanos - System.nanoTime();
+        }
+    }
+
+    /**
+     * Save the results as csv, the rows are appended to the file
+     *
+     * @param report  csv file
+     * @param results step results
+     */
+    public static void save(Path report, List<StepResult> results) {
+        StringBuilder rows = new StringBuilder();
+        for (StepResult result : results) {
+            rows.append(String.join(",",
+                    result.operation,
+                    String.valueOf(result.targetRate),
+                    String.format(Locale.ROOT, "%.1f", result.achievedRate),
+                    String.valueOf(result.count),
+                    String.valueOf(result.errors),
+                    String.valueOf(result.p50Us),
+                    String.valueOf(result.p90Us),
+                    String.valueOf(result.p99Us),
+                    String.valueOf(result.p999Us),
+                    String.valueOf(result.maxUs),
+                    String.valueOf(result.saturated)
+            )).append("\n");
+        }
+
+        try {
+            Files.createDirectories(report.toAbsolutePath().getParent());
+            if (!Files.exists(report)) {
+                Files.write(report, CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+            }
+            Files.write(report, rows.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new IllegalStateException("can't save open loop results: " + report, e);
+        }
+    }
+
+    /**
+     * A rate step in progress: latency of the operations issued in the step
+     * (including the ones completed after the end of the step)
+     */
+    private static class Step {
+        private final int rate;
+        private final Duration duration;
+        private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+        private final LongAdder completedInStep = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        private long start;
+        private long end;
+
+        Step(int rate, Duration duration) {
+            this.rate = rate;
+            this.duration = duration;
+        }
+
+        StepResult result(String operation) {
+            Histogram histogram = recorder.getIntervalHistogram();
+            double seconds = duration.toNanos() / 1_000_000_000.0;
+
+            return new StepResult(
+                    operation,
+                    rate,
+                    completedInStep.sum() / seconds,
+                    histogram.getTotalCount(),
+                    errors.sum(),
+                    micros(histogram.getValueAtPercentile(50)),
+                    micros(histogram.getValueAtPercentile(90)),
+                    micros(histogram.getValueAtPercentile(99)),
+                    micros(histogram.getValueAtPercentile(99.9)),
+                    micros(histogram.getMaxValue()),
+                    false
+            );
+        }
+
+        private static long micros(long nanos) {
+            return TimeUnit.NANOSECONDS.toMicros(nanos);
+        }
+    }
+
+    /**
+     * Results of a rate step, latencies are measured from the intended start time
+     */
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class StepResult {
+        private final String operation;
+        private final int targetRate;
+        private final double achievedRate;
+        private final long count;
+        private final long errors;
+        private final long p50Us;
+        private final long p90Us;
+        private final long p99Us;
+        private final long p999Us;
+        private final long maxUs;
+        private boolean saturated;
+    }
+}
@@ -2,30 +2,38 @@ package org.corfudb.benchmarks.cluster.cloud;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Recorder;
 import org.corfudb.benchmarks.cluster.cloud.BenchmarkConfig.RandomizedPutParams;
 import org.corfudb.benchmarks.cluster.cloud.CloudNativeClusterBenchmarkStateUtil.CorfuStoreAndTable;
-import org.corfudb.benchmarks.util.DataGenerator;
+import org.corfudb.benchmarks.util.KeyDistribution;
+import org.corfudb.benchmarks.util.PayloadGenerator;
+import org.corfudb.benchmarks.util.PayloadType;
 import org.corfudb.runtime.CorfuCompactorManagement.StringKey;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.collections.TxnContext;
 import org.corfudb.utils.CommonTypes.Uuid;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
 import org.openjdk.jmh.results.format.ResultFormatType;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.openjdk.jmh.runner.options.TimeValue;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -47,14 +55,15 @@ public class RandomizedCloudNativeClusterBenchmark {
 
         String benchmarkName = RandomizedCloudNativeClusterBenchmark.class.getSimpleName();
 
-        String benchmarkFileName = benchmarkName +  "-" + System.currentTimeMillis() + ".csv";
+        String runName = benchmarkName + "-" + System.currentTimeMillis();
+        String benchmarkFileName = runName + ".csv";
         Path benchmarksReportFile = Paths.get("/", "var", "log", "corfu", benchmarkFileName);
         benchmarksReportFile.toFile().getParentFile().mkdirs();
 
         log.info("Start " + benchmarkName);
 
         RandomizedPutParams putConfig = CONFIG.benchmark.randomizedPut;
-        Options opt = new OptionsBuilder()
+        ChainedOptionsBuilder optionsBuilder = new OptionsBuilder()
                 .include(benchmarkName)
                 .shouldFailOnError(true)
 
@@ -67,6 +76,11 @@ public class RandomizedCloudNativeClusterBenchmark {
                 .param("numRuntimes", putConfig.numRuntimes)
                 .param("numTables", putConfig.numTables)
 
+                .param("payloadType", CONFIG.benchmark.payload.types)
+                .param("compressionRatio", CONFIG.benchmark.payload.compressionRatio)
+                .param("keyDistribution", CONFIG.benchmark.keys.distribution)
+                .param("putKeySpace", CONFIG.benchmark.keys.putKeySpace)
+
                 .warmupIterations(CONFIG.benchmark.warmup.iterations)
                 .warmupTime(TimeValue.minutes(CONFIG.benchmark.warmup.timeInMinutes))
 
@@ -75,7 +89,16 @@ public class RandomizedCloudNativeClusterBenchmark {
 
                 .threads(CONFIG.benchmark.threads)
                 .forks(CONFIG.benchmark.forks)
+                .timeUnit(TimeUnit.valueOf(CONFIG.benchmark.latency.timeUnit));
+
+        for (String mode : CONFIG.benchmark.latency.modes) {
+            optionsBuilder.mode(Mode.deepValueOf(mode));
+        }
 
+        Path reportDir = benchmarksReportFile.getParent();
+        List<String> forkArgs = LatencyHistograms.jvmArgs(CONFIG.benchmark.latency, reportDir, runName);
+        Options opt = BenchmarkProfilers
+                .attach(optionsBuilder, CONFIG.benchmark.profilers, reportDir, runName, forkArgs)
                 .build();
 
         new Runner(opt).run();
@@ -98,15 +121,41 @@ public class RandomizedCloudNativeClusterBenchmark {
         @Param({"1"})
         public int numTables;
 
+        @Param({"ascii"})
+        public String payloadType;
+        @Param({"4"})
+        public int compressionRatio;
+
+        @Param({"uniform"})
+        public String keyDistribution;
+        @Param({"2147483647"})
+        public int putKeySpace;
+
         private final CloudNativeClusterBenchmarkStateUtil util = new CloudNativeClusterBenchmarkStateUtil();
 
+        private PayloadGenerator payload;
+
+        private KeyDistribution keys;
+
+        private final LatencyHistograms histograms = LatencyHistograms.fromSystemProperties();
+
+        private Recorder latency;
+
         /**
          * Init benchmark state
          */
         @Setup
-        public void init() throws Exception {
+        public void init(BenchmarkParams params) throws Exception {
             log.info("Init benchmark state");
             util.initRuntimesAndTables(numRuntimes, numTables);
+            payload = PayloadGenerator.of(PayloadType.fromName(payloadType), compressionRatio);
+            keys = KeyDistribution.of(keyDistribution, putKeySpace);
+            latency = histograms.recorder(LatencyHistograms.operation("randomizedPut", params));
+        }
+
+        @TearDown(Level.Iteration)
+        public void endIteration(IterationParams iteration) {
+            histograms.endIteration(iteration);
         }
 
         /**
@@ -114,6 +163,8 @@ public class RandomizedCloudNativeClusterBenchmark {
          */
         @TearDown
         public void tearDown() {
+            histograms.close();
+
             for (CorfuStoreAndTable storeAndTable : util.tables) {
                 storeAndTable.table.clearAll();
             }
@@ -142,22 +193,25 @@ public class RandomizedCloudNativeClusterBenchmark {
     @Benchmark
     @BenchmarkMode(Mode.Throughput)
     public void putOperation(RandomizedClusterBenchmarkStateForPut state) {
-        String data = DataGenerator.generateDataString(state.getRandomDataSize());
+        String data = state.getPayload().generateString(state.getRandomDataSize());
 
         StringKey value = StringKey.newBuilder()
                 .setKey(data)
                 .build();
 
-        int keyId = state.util.rnd.nextInt(state.util.rnd.nextInt(Integer.MAX_VALUE));
+        int keyId = state.keys.nextKey();
         Uuid key = Uuid.newBuilder()
                 .setMsb(keyId)
                 .setLsb(keyId)
                 .build();
 
         CorfuStoreAndTable storeAndTable = state.util.getRandomTable(state.numTables);
+        long start = System.nanoTime();
         try (TxnContext tx = storeAndTable.store.txn(CloudNativeClusterBenchmarkStateUtil.CorfuStoreAndTable.NAMESPACE)) {
             tx.putRecord(storeAndTable.table, key, value, null);
             tx.commit();
         }
+        LatencyHistograms.record(state.latency, start);
+        state.keys.onInsert(keyId);
     }
 }
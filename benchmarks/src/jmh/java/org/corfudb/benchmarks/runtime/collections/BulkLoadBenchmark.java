@@ -0,0 +1,146 @@
+package org.corfudb.benchmarks.runtime.collections;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.benchmarks.runtime.collections.helper.BulkLoader;
+import org.corfudb.benchmarks.runtime.collections.helper.CorfuClusterHelper;
+import org.corfudb.benchmarks.runtime.collections.helper.CorfuTableBenchmarkHelper;
+import org.corfudb.benchmarks.runtime.collections.helper.ValueGenerator.StaticValueGenerator;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.collections.ICorfuTable;
+import org.corfudb.runtime.collections.PersistentCorfuTable;
+import org.corfudb.util.serializer.Serializers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures table pre-population with {@link BulkLoader}: the time to load an empty in-memory table
+ * depending on the number of loader threads and the number of keys per transaction.
+ * The load throughput (keys/sec) of every load is logged by the loader.
+ */
+@Slf4j
+public class BulkLoadBenchmark {
+
+    /**
+     * Bulk load benchmark
+     *
+     * @param args args
+     * @throws RunnerException jmh runner exception
+     */
+    public static void main(String[] args) throws RunnerException {
+        String benchmarkName = BulkLoadBenchmark.class.getSimpleName();
+
+        Path benchmarksReportFile = Paths.get("benchmarks", "build", benchmarkName + ".csv");
+        benchmarksReportFile.toFile().getParentFile().mkdirs();
+
+        Options opt = new OptionsBuilder()
+                .include(benchmarkName)
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.CSV)
+                .result(benchmarksReportFile.toString())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @State(Scope.Benchmark)
+    @Getter
+    @Slf4j
+    public static class BulkLoadState {
+
+        @Param({"256"})
+        private int dataSize;
+
+        @Param({"100000", "1000000"})
+        private int tableSize;
+
+        @Param({"1", "4", "8"})
+        private int loadThreads;
+
+        @Param({"1", "100", "1000"})
+        private int loadBatchSize;
+
+        private final CorfuClusterHelper cluster = new CorfuClusterHelper();
+
+        private CorfuRuntime corfuRuntime;
+
+        private CorfuTableBenchmarkHelper helper;
+
+        private int iteration;
+
+        @Setup
+        public void init() {
+            corfuRuntime = cluster.deploy("corfu_bulk_load_benchmark").getRuntime();
+        }
+
+        /**
+         * Every iteration loads a new empty table
+         */
+        @Setup(Level.Iteration)
+        public void openTable() {
+            ICorfuTable<Integer, String> table = corfuRuntime.getObjectsView().build()
+                    .setTypeToken(PersistentCorfuTable.<Integer, String>getTypeToken())
+                    .setStreamName("BulkLoadTable" + iteration++)
+                    .setSerializer(Serializers.PRIMITIVE)
+                    .open();
+
+            helper = CorfuTableBenchmarkHelper.builder()
+                    .valueGenerator(new StaticValueGenerator(dataSize))
+                    .table(table)
+                    .dataSize(dataSize)
+                    .tableSize(tableSize)
+                    .runtime(corfuRuntime)
+                    .loadThreads(loadThreads)
+                    .loadBatchSize(loadBatchSize)
+                    .build()
+                    .check();
+        }
+
+        @TearDown(Level.Iteration)
+        public void closeTable() {
+            helper.getTable().close();
+        }
+
+        @TearDown
+        public void tearDown() {
+            cluster.shutdown();
+        }
+    }
+
+    /**
+     * Load an empty table
+     *
+     * @param state benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    @Threads(value = 1)
+    @Fork(1)
+    public void fillTable(BulkLoadState state) {
+        state.getHelper().fillTable();
+    }
+}
@@ -0,0 +1,303 @@
+package org.corfudb.benchmarks.runtime.collections;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.benchmarks.runtime.collections.helper.BulkLoader;
+import org.corfudb.benchmarks.runtime.collections.helper.CorfuClusterHelper;
+import org.corfudb.benchmarks.util.DataGenerator;
+import org.corfudb.protocols.wireprotocol.Token;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.MultiCheckpointWriter;
+import org.corfudb.runtime.collections.PersistentCorfuTable;
+import org.corfudb.runtime.object.transactions.TransactionType;
+import org.corfudb.runtime.view.ObjectOpenOption;
+import org.corfudb.util.serializer.Serializers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.IterationType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of a service: time to first read of a new runtime that opens numTables tables.
+ * <p>
+ * Every table has tableSize entries, is checkpointed and trimmed, then checkpointAge more updates are written:
+ * the log a new runtime has to load is a checkpoint of tableSize entries plus checkpointAge entries to replay.
+ * A cold start is split into phases, appended to {@link #PHASES_REPORT}:
+ *  - layout: connect the runtime (fetch the layout)
+ *  - checkpoint load: open the tables and read them at the snapshot right after the checkpoint
+ *  - replay: read the tables at the tail, the updates written after the checkpoint are applied
+ * Swept over the value size and the open option (CACHE / NO_CACHE) of the tables.
+ * see: docs/benchmarks/corfu-table.md
+ */
+@Slf4j
+public class ColdStartBenchmark {
+
+    public static final Path PHASES_REPORT = Paths.get("benchmarks", "build", "ColdStartBenchmark.phases.csv");
+
+    private static final String PHASES_HEADER = "numTables,tableSize,checkpointAge,dataSize,openOption,"
+            + "layoutMs,checkpointLoadMs,replayMs,totalMs\n";
+
+    private static final String TABLE_NAME = "ColdStartTable";
+
+    /**
+     * Cold start benchmark
+     *
+     * @param args args
+     * @throws RunnerException jmh runner exception
+     */
+    public static void main(String[] args) throws RunnerException {
+        String benchmarkName = ColdStartBenchmark.class.getSimpleName();
+
+        Path benchmarksReportFile = Paths.get("benchmarks", "build", benchmarkName + ".csv");
+        benchmarksReportFile.toFile().getParentFile().mkdirs();
+
+        Options opt = new OptionsBuilder()
+                .include(benchmarkName)
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.CSV)
+                .result(benchmarksReportFile.toString())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @State(Scope.Benchmark)
+    @Getter
+    @Slf4j
+    public static class ColdStartState {
+
+        @Param({"1", "8"})
+        private int numTables;
+
+        @Param({"100000"})
+        private int tableSize;
+
+        /**
+         * Number of updates of every table written after the checkpoint
+         */
+        @Param({"0", "10000", "100000"})
+        private int checkpointAge;
+
+        @Param({"64", "1024"})
+        private int dataSize;
+
+        @Param({"CACHE", "NO_CACHE"})
+        private ObjectOpenOption openOption;
+
+        private final CorfuClusterHelper cluster = new CorfuClusterHelper();
+
+        /**
+         * Global tail right after the checkpoint: the snapshot that contains the checkpoint only
+         */
+        private Token checkpointSnapshot;
+
+        /**
+         * The runtime of the current cold start
+         */
+        private CorfuRuntime freshRuntime;
+
+        /**
+         * The phases of the warmup iterations (a cold jit) are not reported
+         */
+        private boolean measurement;
+
+        /**
+         * Build the log: fill and checkpoint the tables, trim, then update them
+         */
+        @Setup
+        public void init() {
+            CorfuRuntime runtime = cluster.deploy("corfu_cold_start_benchmark").getRuntime();
+            String value = DataGenerator.generateDataString(dataSize);
+
+            List<PersistentCorfuTable<Integer, String>> tables = new ArrayList<>();
+            for (int i = 0; i < numTables; i++) {
+                tables.add(openTable(runtime, i, ObjectOpenOption.CACHE));
+            }
+
+            BulkLoader loader = BulkLoader.builder().numKeys(tableSize).build();
+            for (PersistentCorfuTable<Integer, String> table : tables) {
+                loader.load(TABLE_NAME, (worker, from, to) -> write(runtime, table, from, to, value));
+            }
+
+            MultiCheckpointWriter<PersistentCorfuTable<Integer, String>> mcw = new MultiCheckpointWriter<>();
+            tables.forEach(mcw::addMap);
+            Token trimPoint = mcw.appendCheckpoints(runtime, "cold_start_benchmark");
+            runtime.getAddressSpaceView().prefixTrim(trimPoint);
+            runtime.getAddressSpaceView().gc();
+            checkpointSnapshot = runtime.getSequencerView().query().getToken();
+
+            BulkLoader updater = BulkLoader.builder().numKeys(checkpointAge).build();
+            for (PersistentCorfuTable<Integer, String> table : tables) {
+                updater.load(TABLE_NAME, (worker, from, to) -> update(runtime, table, to - from, value));
+            }
+            log.info("Log of {} tables: {} entries, checkpoint at {}, {} updates after the checkpoint",
+                    numTables, tableSize, checkpointSnapshot, checkpointAge
+            );
+        }
+
+        @Setup(Level.Iteration)
+        public void startIteration(IterationParams iteration) {
+            measurement = iteration.getType() == IterationType.MEASUREMENT;
+        }
+
+        @TearDown(Level.Iteration)
+        public void shutdownFreshRuntime() {
+            if (freshRuntime != null) {
+                freshRuntime.shutdown();
+                freshRuntime = null;
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            cluster.shutdown();
+        }
+
+        /**
+         * A new runtime connected to the same layout servers as the cluster runtime
+         */
+        CorfuRuntime newRuntime() {
+            CorfuRuntime clusterRuntime = cluster.getRuntime();
+            freshRuntime = CorfuRuntime.fromParameters(clusterRuntime.getParameters());
+            clusterRuntime.getLayoutServers().forEach(freshRuntime::addLayoutServer);
+            return freshRuntime;
+        }
+
+        static PersistentCorfuTable<Integer, String> openTable(
+                CorfuRuntime runtime, int index, ObjectOpenOption option) {
+            return runtime.getObjectsView().build()
+                    .setTypeToken(PersistentCorfuTable.<Integer, String>getTypeToken())
+                    .setStreamName(TABLE_NAME + index)
+                    .setSerializer(Serializers.PRIMITIVE)
+                    .addOpenOption(option)
+                    .open();
+        }
+
+        private static void write(
+                CorfuRuntime runtime, PersistentCorfuTable<Integer, String> table, int from, int to, String value) {
+            runtime.getObjectsView().TXBegin();
+            try {
+                for (int key = from; key < to; key++) {
+                    table.insert(key, value);
+                }
+            } catch (RuntimeException e) {
+                runtime.getObjectsView().TXAbort();
+                throw e;
+            }
+            runtime.getObjectsView().TXEnd();
+        }
+
+        /**
+         * Update numUpdates random keys in a transaction
+         */
+        private void update(
+                CorfuRuntime runtime, PersistentCorfuTable<Integer, String> table, int numUpdates, String value) {
+            runtime.getObjectsView().TXBegin();
+            try {
+                for (int i = 0; i < numUpdates; i++) {
+                    table.insert(ThreadLocalRandom.current().nextInt(tableSize), value);
+                }
+            } catch (RuntimeException e) {
+                runtime.getObjectsView().TXAbort();
+                throw e;
+            }
+            runtime.getObjectsView().TXEnd();
+        }
+
+        void reportPhases(long layoutNanos, long checkpointLoadNanos, long replayNanos) {
+            if (!measurement) {
+                return;
+            }
+
+            String row = String.format("%d,%d,%d,%d,%s,%d,%d,%d,%d%n",
+                    numTables, tableSize, checkpointAge, dataSize, openOption,
+                    millis(layoutNanos), millis(checkpointLoadNanos), millis(replayNanos),
+                    millis(layoutNanos + checkpointLoadNanos + replayNanos)
+            );
+
+            try {
+                Files.createDirectories(PHASES_REPORT.getParent());
+                if (!Files.exists(PHASES_REPORT)) {
+                    Files.write(PHASES_REPORT, PHASES_HEADER.getBytes(StandardCharsets.UTF_8));
+                }
+                Files.write(PHASES_REPORT, row.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                throw new IllegalStateException("can't save cold start phases: " + PHASES_REPORT, e);
+            }
+        }
+
+        private static long millis(long nanos) {
+            return TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+    }
+
+    /**
+     * Time to first read of a new runtime: connect, open the tables, load the checkpoint and replay the log
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 5)
+    @Threads(value = 1)
+    @Fork(1)
+    public void coldStart(Blackhole blackhole, ColdStartState state) {
+        long start = System.nanoTime();
+        CorfuRuntime runtime = state.newRuntime().connect();
+        long layout = System.nanoTime();
+
+        List<PersistentCorfuTable<Integer, String>> tables = new ArrayList<>();
+        for (int i = 0; i < state.getNumTables(); i++) {
+            tables.add(ColdStartState.openTable(runtime, i, state.getOpenOption()));
+        }
+
+        runtime.getObjectsView().TXBuild()
+                .type(TransactionType.OPTIMISTIC)
+                .snapshot(state.getCheckpointSnapshot())
+                .build()
+                .begin();
+        try {
+            tables.forEach(table -> blackhole.consume(table.size()));
+        } finally {
+            runtime.getObjectsView().TXEnd();
+        }
+        long checkpointLoad = System.nanoTime();
+
+        tables.forEach(table -> blackhole.consume(table.get(0)));
+        long replay = System.nanoTime();
+
+        state.reportPhases(layout - start, checkpointLoad - layout, replay - checkpointLoad);
+    }
+}
@@ -0,0 +1,367 @@
+package org.corfudb.benchmarks.runtime.collections;
+
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.benchmarks.runtime.collections.helper.CorfuTableBenchmarkHelper;
+import org.corfudb.benchmarks.runtime.collections.state.HashMapState.HashMapStateForGet;
+import org.corfudb.benchmarks.runtime.collections.state.HashMapState.HashMapStateForPut;
+import org.corfudb.benchmarks.runtime.collections.state.RocksDbState.RocksDbStateForGet;
+import org.corfudb.benchmarks.runtime.collections.state.RocksDbState.RocksDbStateForPut;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark compares an in-memory corfu table (PersistentCorfuTable) vs a disk-backed corfu table
+ * (PersistedCorfuTable): get (hit/miss), put/update, remove, full scan and mixed read/write operations.
+ * see: docs/benchmarks/corfu-table.md
+ */
+@Slf4j
+public class CorfuTableBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16};
+
+    /**
+     * Group benchmarks: a fixed number of readers and writers ({@link GroupThreads})
+     */
+    private static final String MIXED_BENCHMARKS = CorfuTableBenchmark.class.getName() + "\\..*Mixed";
+
+    /**
+     * Runs the benchmark for every number of threads and saves the results in csv and json formats.
+     * The group benchmarks run once: jmh rounds the number of threads up to a multiple of the group size,
+     * so they would be reported with wrong thread counts.
+     *
+     * @param args args
+     * @throws RunnerException jmh runner exception
+     */
+    public static void main(String[] args) throws RunnerException {
+        String benchmarkName = CorfuTableBenchmark.class.getSimpleName();
+        log.info("Start {}", benchmarkName);
+
+        Path benchmarksReportDir = Paths.get("benchmarks", "build", "reports", benchmarkName);
+        benchmarksReportDir.toFile().mkdirs();
+
+        List<RunResult> results = new ArrayList<>();
+        for (int threads : THREADS) {
+            Options opt = new OptionsBuilder()
+                    .include(CorfuTableBenchmark.class.getName() + "\\..*")
+                    .exclude(MIXED_BENCHMARKS)
+                    .shouldFailOnError(true)
+                    .threads(threads)
+                    .build();
+
+            results.addAll(new Runner(opt).run());
+        }
+
+        Options mixedOpt = new OptionsBuilder()
+                .include(MIXED_BENCHMARKS)
+                .shouldFailOnError(true)
+                .build();
+        results.addAll(new Runner(mixedOpt).run());
+
+        ResultFormatFactory
+                .getInstance(ResultFormatType.CSV, benchmarksReportDir.resolve(benchmarkName + ".csv").toString())
+                .writeOut(results);
+        ResultFormatFactory
+                .getInstance(ResultFormatType.JSON, benchmarksReportDir.resolve(benchmarkName + ".json").toString())
+                .writeOut(results);
+    }
+
+    /**
+     * Get an existing key from the in-memory table
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    public void hashMapGetHit(Blackhole blackhole, HashMapStateForGet state) {
+        getHit(blackhole, state.getHelper());
+    }
+
+    /**
+     * Get a non-existent key from the in-memory table
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    public void hashMapGetMiss(Blackhole blackhole, HashMapStateForGet state) {
+        getMiss(blackhole, state.getHelper());
+    }
+
+    /**
+     * Put new keys into an empty in-memory table
+     *
+     * @param state benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    public void hashMapPut(HashMapStateForPut state) {
+        put(state.getHelper());
+    }
+
+    /**
+     * Update existing keys of the in-memory table
+     *
+     * @param state benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    public void hashMapUpdate(HashMapStateForGet state) {
+        put(state.getHelper());
+    }
+
+    /**
+     * Remove keys from the in-memory table
+     *
+     * @param state benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    public void hashMapRemove(HashMapStateForGet state) {
+        remove(state.getHelper());
+    }
+
+    /**
+     * Full scan of the in-memory table
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    public void hashMapScan(Blackhole blackhole, HashMapStateForGet state) {
+        scan(blackhole, state.getHelper());
+    }
+
+    /**
+     * Mixed workload for the in-memory table: readers
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    @Group("hashMapMixed")
+    @GroupThreads(3)
+    public void hashMapMixedGet(Blackhole blackhole, HashMapStateForGet state) {
+        getHit(blackhole, state.getHelper());
+    }
+
+    /**
+     * Mixed workload for the in-memory table: writers
+     *
+     * @param state benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    @Group("hashMapMixed")
+    @GroupThreads(1)
+    public void hashMapMixedPut(HashMapStateForGet state) {
+        put(state.getHelper());
+    }
+
+    /**
+     * Get an existing key from the disk-backed table
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    public void rocksDbGetHit(Blackhole blackhole, RocksDbStateForGet state) {
+        getHit(blackhole, state.getHelper());
+    }
+
+    /**
+     * Get a non-existent key from the disk-backed table
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    public void rocksDbGetMiss(Blackhole blackhole, RocksDbStateForGet state) {
+        getMiss(blackhole, state.getHelper());
+    }
+
+    /**
+     * Put new keys into an empty disk-backed table
+     *
+     * @param state benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    public void rocksDbPut(RocksDbStateForPut state) {
+        put(state.getHelper());
+    }
+
+    /**
+     * Update existing keys of the disk-backed table
+     *
+     * @param state benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    public void rocksDbUpdate(RocksDbStateForGet state) {
+        put(state.getHelper());
+    }
+
+    /**
+     * Remove keys from the disk-backed table
+     *
+     * @param state benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    public void rocksDbRemove(RocksDbStateForGet state) {
+        remove(state.getHelper());
+    }
+
+    /**
+     * Full scan of the disk-backed table
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    public void rocksDbScan(Blackhole blackhole, RocksDbStateForGet state) {
+        scan(blackhole, state.getHelper());
+    }
+
+    /**
+     * Mixed workload for the disk-backed table: readers
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    @Group("rocksDbMixed")
+    @GroupThreads(3)
+    public void rocksDbMixedGet(Blackhole blackhole, RocksDbStateForGet state) {
+        getHit(blackhole, state.getHelper());
+    }
+
+    /**
+     * Mixed workload for the disk-backed table: writers
+     *
+     * @param state benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    @Group("rocksDbMixed")
+    @GroupThreads(1)
+    public void rocksDbMixedPut(RocksDbStateForGet state) {
+        put(state.getHelper());
+    }
+
+    private void getHit(Blackhole blackhole, CorfuTableBenchmarkHelper helper) {
+        blackhole.consume(helper.getTable().get(helper.generate()));
+    }
+
+    private void getMiss(Blackhole blackhole, CorfuTableBenchmarkHelper helper) {
+        blackhole.consume(helper.getTable().get(helper.generateMissingKey()));
+    }
+
+    private void put(CorfuTableBenchmarkHelper helper) {
+        helper.insert(helper.generate(), helper.generateValue());
+    }
+
+    /**
+     * Removed keys are not restored, every delete is appended to the log regardless of the key presence
+     */
+    private void remove(CorfuTableBenchmarkHelper helper) {
+        helper.getTable().delete(helper.generate());
+    }
+
+    private void scan(Blackhole blackhole, CorfuTableBenchmarkHelper helper) {
+        helper.getTable().entryStream().forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,327 @@
+package org.corfudb.benchmarks.runtime.collections;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.corfudb.benchmarks.runtime.collections.experiment.ehcache.EhCacheMap;
+import org.corfudb.benchmarks.runtime.collections.experiment.ehcache.EhCacheProfile;
+import org.corfudb.benchmarks.runtime.collections.experiment.mmap.MappedIntMap;
+import org.corfudb.benchmarks.runtime.collections.experiment.rocksdb.RocksDbMap;
+import org.corfudb.benchmarks.runtime.collections.helper.CorfuClusterHelper;
+import org.corfudb.benchmarks.runtime.collections.helper.KeyValueBackend;
+import org.corfudb.benchmarks.util.DataGenerator;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.collections.DiskBackedCorfuTable;
+import org.corfudb.runtime.collections.ICorfuTable;
+import org.corfudb.runtime.collections.PersistedCorfuTable;
+import org.corfudb.runtime.collections.PersistentCorfuTable;
+import org.corfudb.runtime.object.PersistenceOptions;
+import org.corfudb.util.serializer.Serializers;
+import org.ehcache.PersistentCacheManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Head-to-head comparison of the key/value backends under identical workloads:
+ * EhCacheMap (heap, heap+offheap, heap+offheap+disk), RocksDbMap, MappedIntMap (off-heap memory-mapped map),
+ * PersistentCorfuTable (in-memory corfu table) and PersistedCorfuTable (disk-backed corfu table).
+ * see: docs/benchmarks/corfu-table.md
+ */
+@Slf4j
+public class MapBackendBenchmark {
+
+    private static final String EHCACHE_PREFIX = "ehcache-";
+
+    /**
+     * Map backend benchmark
+     *
+     * @param args args
+     * @throws RunnerException jmh runner exception
+     */
+    public static void main(String[] args) throws RunnerException {
+        String benchmarkName = MapBackendBenchmark.class.getSimpleName();
+
+        Path benchmarksReportFile = Paths.get("benchmarks", "build", benchmarkName + ".csv");
+        benchmarksReportFile.toFile().getParentFile().mkdirs();
+
+        Options opt = new OptionsBuilder()
+                .include(MapBackendBenchmark.class.getName() + "\\..*")
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.CSV)
+                .result(benchmarksReportFile.toString())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @State(Scope.Benchmark)
+    @Getter
+    @Slf4j
+    public static class MapBackendState {
+
+        /**
+         * ehcache-{@link EhCacheProfile} name, rocksdb, mmap, persistent-corfu-table or persisted-corfu-table
+         */
+        @Param({
+                "ehcache-heap", "ehcache-heap-offheap", "ehcache-heap-offheap-disk",
+                "rocksdb", "mmap", "persistent-corfu-table", "persisted-corfu-table"
+        })
+        private String backend;
+
+        @Param({"64", "256", "1024"})
+        private int dataSize;
+
+        @Param({"100000"})
+        private int tableSize;
+
+        private final CorfuClusterHelper cluster = new CorfuClusterHelper();
+
+        private Path dataPath;
+
+        private KeyValueBackend<Integer, String> map;
+
+        private String value;
+
+        /**
+         * Open the backend and fill it with tableSize entries
+         *
+         * @throws Exception backend exception
+         */
+        @Setup
+        public void init() throws Exception {
+            log.info("Initialization. Backend: {}", backend);
+
+            dataPath = Files.createTempDirectory("map_backend");
+            value = DataGenerator.generateDataString(dataSize);
+            map = openBackend();
+
+            for (int i = 0; i < tableSize; i++) {
+                map.put(i, value);
+            }
+        }
+
+        private KeyValueBackend<Integer, String> openBackend() throws Exception {
+            if (backend.startsWith(EHCACHE_PREFIX)) {
+                EhCacheProfile profile = EhCacheProfile.fromName(backend.substring(EHCACHE_PREFIX.length()));
+                PersistentCacheManager cacheManager = EhCacheProfile.cacheManager(dataPath);
+                EhCacheMap<Integer, String> ehCacheMap = EhCacheMap.of(
+                        cacheManager, profile, tableSize, Integer.class, String.class
+                );
+
+                return KeyValueBackend.fromMap(ehCacheMap, () -> {
+                    ehCacheMap.close();
+                    cacheManager.close();
+                });
+            }
+
+            switch (backend) {
+                case "rocksdb":
+                    RocksDbMap<Integer, String> rocksDbMap = RocksDbMap.<Integer, String>builder()
+                            .dbPath(dataPath)
+                            .keyType(Integer.class)
+                            .valueType(String.class)
+                            .build()
+                            .init();
+                    return KeyValueBackend.fromMap(rocksDbMap, rocksDbMap::close);
+                case "mmap":
+                    MappedIntMap mappedMap = MappedIntMap.builder()
+                            .dataPath(dataPath)
+                            .initialCapacity(tableSize)
+                            .build()
+                            .open();
+                    return KeyValueBackend.fromMappedIntMap(mappedMap);
+                case "persistent-corfu-table":
+                    ICorfuTable<Integer, String> inMemoryTable = runtime().getObjectsView().build()
+                            .setTypeToken(PersistentCorfuTable.<Integer, String>getTypeToken())
+                            .setStreamName("InMemoryTable")
+                            .setSerializer(Serializers.PRIMITIVE)
+                            .open();
+                    return KeyValueBackend.fromTable(inMemoryTable, cluster::shutdown);
+                case "persisted-corfu-table":
+                    PersistenceOptions persistenceOptions = PersistenceOptions.builder()
+                            .dataPath(dataPath)
+                            .build();
+                    ICorfuTable<Integer, String> diskBackedTable = runtime().getObjectsView().build()
+                            .setTypeToken(PersistedCorfuTable.<Integer, String>getTypeToken())
+                            .setArguments(
+                                    persistenceOptions, DiskBackedCorfuTable.defaultOptions, Serializers.PRIMITIVE
+                            )
+                            .setStreamName("DiskBackedTable")
+                            .setSerializer(Serializers.PRIMITIVE)
+                            .open();
+                    return KeyValueBackend.fromTable(diskBackedTable, cluster::shutdown);
+                default:
+                    throw new IllegalArgumentException("Unknown backend: " + backend);
+            }
+        }
+
+        private CorfuRuntime runtime() {
+            return cluster.deploy("map_backend_benchmark").getRuntime();
+        }
+
+        public int generateKey() {
+            return ThreadLocalRandom.current().nextInt(tableSize);
+        }
+
+        public int generateMissingKey() {
+            return tableSize + generateKey();
+        }
+
+        /**
+         * Close the backend and delete its data
+         *
+         * @throws IOException io exception
+         */
+        @TearDown
+        public void tearDown() throws IOException {
+            map.close();
+            FileUtils.deleteDirectory(dataPath.toFile());
+        }
+    }
+
+    /**
+     * Get an existing key
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void getHit(Blackhole blackhole, MapBackendState state) {
+        blackhole.consume(state.getMap().get(state.generateKey()));
+    }
+
+    /**
+     * Get a non-existent key
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void getMiss(Blackhole blackhole, MapBackendState state) {
+        blackhole.consume(state.getMap().get(state.generateMissingKey()));
+    }
+
+    /**
+     * Update an existing key
+     *
+     * @param state benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void update(MapBackendState state) {
+        state.getMap().put(state.generateKey(), state.getValue());
+    }
+
+    /**
+     * Remove a key and insert it back, the number of entries stays the same
+     *
+     * @param state benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void removeAndInsert(MapBackendState state) {
+        int key = state.generateKey();
+        state.getMap().remove(key);
+        state.getMap().put(key, state.getValue());
+    }
+
+    /**
+     * Full scan
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 1)
+    @Fork(1)
+    public void scan(Blackhole blackhole, MapBackendState state) {
+        state.getMap().scan(blackhole::consume);
+    }
+
+    /**
+     * Mixed workload: 3 readers
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    @Group("mixed")
+    @GroupThreads(3)
+    public void mixedGet(Blackhole blackhole, MapBackendState state) {
+        getHit(blackhole, state);
+    }
+
+    /**
+     * Mixed workload: 1 writer
+     *
+     * @param state benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    @Group("mixed")
+    @GroupThreads(1)
+    public void mixedPut(MapBackendState state) {
+        update(state);
+    }
+}
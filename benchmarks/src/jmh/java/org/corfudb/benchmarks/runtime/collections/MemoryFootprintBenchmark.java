@@ -0,0 +1,99 @@
+package org.corfudb.benchmarks.runtime.collections;
+
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.benchmarks.runtime.collections.helper.CorfuTableBenchmarkHelper;
+import org.corfudb.benchmarks.runtime.collections.helper.MemoryFootprint;
+import org.corfudb.benchmarks.runtime.collections.state.HashMapState.HashMapStateForFootprint;
+import org.corfudb.benchmarks.runtime.collections.state.RocksDbState.RocksDbStateForFootprint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory footprint of PersistentCorfuTable vs PersistedCorfuTable.
+ * The footprint states load the tables (64b/256b/1kb values, 10k/100k/1m entries) and append
+ * heap, native and disk bytes per entry and the gc activity of the load to {@link MemoryFootprint#REPORT}:
+ * a bytes-per-entry curve of every table type and value size.
+ * The get benchmarks run with the gc profiler: gc pauses of a loaded table under a read workload.
+ * see: docs/benchmarks/corfu-table.md
+ */
+@Slf4j
+public class MemoryFootprintBenchmark {
+
+    /**
+     * Memory footprint benchmark, every fork measures a single table configuration
+     *
+     * @param args args
+     * @throws RunnerException jmh runner exception
+     */
+    public static void main(String[] args) throws RunnerException {
+        String benchmarkName = MemoryFootprintBenchmark.class.getSimpleName();
+
+        Path benchmarksReportFile = Paths.get("benchmarks", "build", benchmarkName + ".csv");
+        benchmarksReportFile.toFile().getParentFile().mkdirs();
+
+        Options opt = new OptionsBuilder()
+                .include(benchmarkName)
+                .shouldFailOnError(true)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.CSV)
+                .result(benchmarksReportFile.toString())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    /**
+     * Reads of the loaded in-memory table
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void inMemoryGet(Blackhole blackhole, HashMapStateForFootprint state) {
+        get(blackhole, state.getHelper());
+    }
+
+    /**
+     * Reads of the loaded disk-backed table
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void diskBackedGet(Blackhole blackhole, RocksDbStateForFootprint state) {
+        get(blackhole, state.getHelper());
+    }
+
+    private void get(Blackhole blackhole, CorfuTableBenchmarkHelper helper) {
+        blackhole.consume(helper.getTable().get(helper.generate()));
+    }
+}
@@ -0,0 +1,306 @@
+package org.corfudb.benchmarks.runtime.collections;
+
+import com.google.protobuf.Message;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.benchmarks.BenchmarkSchema.EventInfo;
+import org.corfudb.benchmarks.BenchmarkSchema.PlainEventInfo;
+import org.corfudb.benchmarks.runtime.collections.helper.BulkLoader;
+import org.corfudb.benchmarks.runtime.collections.helper.CorfuClusterHelper;
+import org.corfudb.benchmarks.runtime.collections.helper.MemoryFootprint;
+import org.corfudb.runtime.collections.CorfuStore;
+import org.corfudb.runtime.collections.Table;
+import org.corfudb.runtime.collections.TableOptions;
+import org.corfudb.runtime.collections.TxnContext;
+import org.corfudb.utils.CommonTypes.Uuid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Secondary index benchmark on CorfuStore: EventInfo tables are indexed by event_time.
+ * Measures getByIndex latency depending on the index cardinality (number of distinct event times,
+ * a lookup returns tableSize / indexCardinality records), the put cost of the index maintenance
+ * (compared to the same records without an index) and the heap used per indexed entry,
+ * the footprint of both tables is appended to {@link MemoryFootprint#REPORT}.
+ * see: docs/benchmarks/corfu-table.md
+ */
+@Slf4j
+public class SecondaryIndexBenchmark {
+
+    private static final String NAMESPACE = "benchmark";
+
+    /**
+     * Index name of the secondary_key option of EventInfo
+     */
+    private static final String EVENT_TIME_INDEX = "event_time";
+
+    /**
+     * Secondary index benchmark
+     *
+     * @param args args
+     * @throws RunnerException jmh runner exception
+     */
+    public static void main(String[] args) throws RunnerException {
+        String benchmarkName = SecondaryIndexBenchmark.class.getSimpleName();
+
+        Path benchmarksReportFile = Paths.get("benchmarks", "build", benchmarkName + ".csv");
+        benchmarksReportFile.toFile().getParentFile().mkdirs();
+
+        Options opt = new OptionsBuilder()
+                .include(benchmarkName)
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.CSV)
+                .result(benchmarksReportFile.toString())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @State(Scope.Benchmark)
+    @Getter
+    @Slf4j
+    public static class SecondaryIndexState {
+
+        @Param({"100000"})
+        private int tableSize;
+
+        /**
+         * Number of distinct event times
+         */
+        @Param({"10", "1000", "100000"})
+        private int indexCardinality;
+
+        private final CorfuClusterHelper cluster = new CorfuClusterHelper();
+
+        private CorfuStore store;
+
+        private Table<Uuid, EventInfo, Message> indexedTable;
+
+        private Table<Uuid, PlainEventInfo, Message> plainTable;
+
+        /**
+         * Open the indexed and the plain tables and fill them with the same records
+         *
+         * @throws Exception corfu store exception
+         */
+        @Setup
+        public void init() throws Exception {
+            store = new CorfuStore(cluster.deploy("corfu_secondary_index_benchmark").getRuntime());
+
+            indexedTable = store.openTable(
+                    NAMESPACE, "IndexedEvents", Uuid.class, EventInfo.class, null,
+                    TableOptions.fromProtoSchema(EventInfo.class)
+            );
+            plainTable = store.openTable(
+                    NAMESPACE, "PlainEvents", Uuid.class, PlainEventInfo.class, null,
+                    TableOptions.fromProtoSchema(PlainEventInfo.class)
+            );
+
+            BulkLoader loader = BulkLoader.builder().numKeys(tableSize).build();
+
+            MemoryFootprint initial = MemoryFootprint.measure(null);
+            loader.load(indexedTable.getFullyQualifiedTableName(), (worker, from, to) -> {
+                try (TxnContext tx = store.txn(NAMESPACE)) {
+                    for (int i = from; i < to; i++) {
+                        tx.putRecord(indexedTable, key(i), event(i, i % indexCardinality), null);
+                    }
+                    tx.commit();
+                }
+            });
+            sync(indexedTable);
+            MemoryFootprint indexed = MemoryFootprint.measure(null);
+
+            loader.load(plainTable.getFullyQualifiedTableName(), (worker, from, to) -> {
+                try (TxnContext tx = store.txn(NAMESPACE)) {
+                    for (int i = from; i < to; i++) {
+                        tx.putRecord(plainTable, key(i), plainEvent(i, i % indexCardinality), null);
+                    }
+                    tx.commit();
+                }
+            });
+            sync(plainTable);
+            MemoryFootprint plain = MemoryFootprint.measure(null);
+
+            int indexedDataSize = averageSize(id -> event(id, id % indexCardinality));
+            int plainDataSize = averageSize(id -> plainEvent(id, id % indexCardinality));
+            indexed.minus(initial)
+                    .report(MemoryFootprint.REPORT, "indexed-" + indexCardinality, indexedDataSize, tableSize);
+            plain.minus(indexed)
+                    .report(MemoryFootprint.REPORT, "plain-" + indexCardinality, plainDataSize, tableSize);
+        }
+
+        /**
+         * Read the table: the loaded records (and the secondary index) are applied to the table lazily,
+         * when a read syncs it, so a table is synced before its footprint is measured
+         */
+        private void sync(Table<Uuid, ?, Message> table) {
+            int count;
+            try (TxnContext tx = store.txn(NAMESPACE)) {
+                count = tx.count(table);
+                tx.commit();
+            }
+
+            if (count != tableSize) {
+                throw new IllegalStateException("The table is not loaded: " + count + " of " + tableSize + " records");
+            }
+        }
+
+        /**
+         * Average serialized size of the values of the table
+         */
+        private int averageSize(IntFunction<Message> value) {
+            long bytes = 0;
+            for (int id = 0; id < tableSize; id++) {
+                bytes += value.apply(id).getSerializedSize();
+            }
+            return (int) (bytes / tableSize);
+        }
+
+        @TearDown
+        public void tearDown() {
+            cluster.shutdown();
+        }
+
+        Uuid randomKey() {
+            return key(ThreadLocalRandom.current().nextInt(tableSize));
+        }
+
+        long randomEventTime() {
+            return ThreadLocalRandom.current().nextInt(indexCardinality);
+        }
+
+        static Uuid key(int id) {
+            return Uuid.newBuilder()
+                    .setMsb(id)
+                    .setLsb(id)
+                    .build();
+        }
+
+        static EventInfo event(int id, long eventTime) {
+            return EventInfo.newBuilder()
+                    .setId(id)
+                    .setName("event-" + id)
+                    .setPort(id % 65536)
+                    .setEventTime(eventTime)
+                    .setFrequency(id % 100)
+                    .build();
+        }
+
+        static PlainEventInfo plainEvent(int id, long eventTime) {
+            return PlainEventInfo.newBuilder()
+                    .setId(id)
+                    .setName("event-" + id)
+                    .setPort(id % 65536)
+                    .setEventTime(eventTime)
+                    .setFrequency(id % 100)
+                    .build();
+        }
+    }
+
+    /**
+     * Find all the records of an event time
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void getByIndex(Blackhole blackhole, SecondaryIndexState state) {
+        try (TxnContext tx = state.getStore().txn(NAMESPACE)) {
+            blackhole.consume(tx.getByIndex(state.getIndexedTable(), EVENT_TIME_INDEX, state.randomEventTime()));
+            tx.commit();
+        }
+    }
+
+    /**
+     * Primary key lookup, the baseline of the index lookup
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void getByKey(Blackhole blackhole, SecondaryIndexState state) {
+        try (TxnContext tx = state.getStore().txn(NAMESPACE)) {
+            blackhole.consume(tx.getRecord(state.getIndexedTable(), state.randomKey()));
+            tx.commit();
+        }
+    }
+
+    /**
+     * Update a record of the indexed table: the record moves to another event time of the index
+     *
+     * @param state benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void putIndexed(SecondaryIndexState state) {
+        int id = ThreadLocalRandom.current().nextInt(state.getTableSize());
+        try (TxnContext tx = state.getStore().txn(NAMESPACE)) {
+            tx.putRecord(state.getIndexedTable(), SecondaryIndexState.key(id),
+                    SecondaryIndexState.event(id, state.randomEventTime()), null
+            );
+            tx.commit();
+        }
+    }
+
+    /**
+     * Update a record of the table without an index, the baseline of the index maintenance cost
+     *
+     * @param state benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void putPlain(SecondaryIndexState state) {
+        int id = ThreadLocalRandom.current().nextInt(state.getTableSize());
+        try (TxnContext tx = state.getStore().txn(NAMESPACE)) {
+            tx.putRecord(state.getPlainTable(), SecondaryIndexState.key(id),
+                    SecondaryIndexState.plainEvent(id, state.randomEventTime()), null
+            );
+            tx.commit();
+        }
+    }
+}
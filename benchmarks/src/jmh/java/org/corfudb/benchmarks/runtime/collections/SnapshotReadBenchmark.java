@@ -0,0 +1,315 @@
+package org.corfudb.benchmarks.runtime.collections;
+
+import com.google.protobuf.Message;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.benchmarks.runtime.collections.helper.BulkLoader;
+import org.corfudb.benchmarks.runtime.collections.helper.CorfuClusterHelper;
+import org.corfudb.benchmarks.runtime.collections.helper.MemoryFootprint;
+import org.corfudb.benchmarks.util.DataGenerator;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.CorfuRuntime.CorfuRuntimeParameters;
+import org.corfudb.runtime.CorfuCompactorManagement.StringKey;
+import org.corfudb.runtime.CorfuStoreMetadata.Timestamp;
+import org.corfudb.runtime.collections.CorfuStore;
+import org.corfudb.runtime.collections.IsolationLevel;
+import org.corfudb.runtime.collections.Table;
+import org.corfudb.runtime.collections.TableOptions;
+import org.corfudb.runtime.collections.TxnContext;
+import org.corfudb.utils.CommonTypes.Uuid;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Snapshot isolated reads: transactions read at historical snapshots while a writer keeps updating the table.
+ * Every read is pinned to one of the last snapshotDistance commit timestamps (uniformly), so distance 0
+ * reads at the latest commit and a large distance forces the runtime to materialize old versions
+ * of the table (the multi-version object cache misses and the stream is replayed).
+ * The benchmark runtime is built with maxMvoCacheEntries, the cache hits, misses and hit rate of every iteration
+ * are reported as aux counters (throughput mode). The read latency distribution (sample mode) shows the cost
+ * of the cache misses, the memory growth of every iteration is appended to {@link MemoryFootprint#REPORT}.
+ * see: docs/benchmarks/corfu-table.md
+ */
+@Slf4j
+public class SnapshotReadBenchmark {
+
+    private static final String NAMESPACE = "benchmark";
+
+    /**
+     * Number of the latest commit timestamps available to the readers
+     */
+    private static final int MAX_SNAPSHOTS = 1 << 16;
+
+    /**
+     * Snapshot read benchmark
+     *
+     * @param args args
+     * @throws RunnerException jmh runner exception
+     */
+    public static void main(String[] args) throws RunnerException {
+        String benchmarkName = SnapshotReadBenchmark.class.getSimpleName();
+
+        Path benchmarksReportFile = Paths.get("benchmarks", "build", benchmarkName + ".csv");
+        benchmarksReportFile.toFile().getParentFile().mkdirs();
+
+        Options opt = new OptionsBuilder()
+                .include(benchmarkName)
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.CSV)
+                .result(benchmarksReportFile.toString())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @State(Scope.Benchmark)
+    @Getter
+    @Slf4j
+    public static class SnapshotState {
+
+        @Param({"256"})
+        private int dataSize;
+
+        @Param({"10000"})
+        private int tableSize;
+
+        /**
+         * Number of commits between the tail and the oldest snapshot of the reads
+         */
+        @Param({"0", "100", "10000"})
+        private int snapshotDistance;
+
+        /**
+         * Size of the multi-version object cache of the benchmark runtime
+         */
+        @Param({"2500", "50000"})
+        private long maxMvoCacheEntries;
+
+        private final CorfuClusterHelper cluster = new CorfuClusterHelper();
+
+        private CorfuRuntime runtime;
+
+        private CorfuStore store;
+
+        private Table<Uuid, StringKey, Message> table;
+
+        private StringKey value;
+
+        /**
+         * Ring buffer of the latest commit timestamps
+         */
+        private final AtomicReferenceArray<Timestamp> snapshots = new AtomicReferenceArray<>(MAX_SNAPSHOTS);
+
+        private final AtomicLong numCommits = new AtomicLong();
+
+        private MemoryFootprint iterationBaseline;
+
+        /**
+         * Fill the table and make enough commits for the oldest snapshot
+         *
+         * @throws Exception corfu store exception
+         */
+        @Setup
+        public void init() throws Exception {
+            if (snapshotDistance >= MAX_SNAPSHOTS) {
+                throw new IllegalArgumentException("Snapshot distance is too large: " + snapshotDistance);
+            }
+
+            CorfuRuntime clusterRuntime = cluster.deploy("corfu_snapshot_read_benchmark").getRuntime();
+            runtime = CorfuRuntime.fromParameters(CorfuRuntimeParameters.builder()
+                    .maxMvoCacheEntries(maxMvoCacheEntries)
+                    .build());
+            clusterRuntime.getLayoutServers().forEach(runtime::addLayoutServer);
+            runtime.connect();
+
+            store = new CorfuStore(runtime);
+            table = store.openTable(
+                    NAMESPACE, "SnapshotTable", Uuid.class, StringKey.class, null,
+                    TableOptions.fromProtoSchema(StringKey.class)
+            );
+            value = StringKey.newBuilder()
+                    .setKey(DataGenerator.generateDataString(dataSize))
+                    .build();
+
+            BulkLoader.builder().numKeys(tableSize).build().load(table.getFullyQualifiedTableName(), (w, from, to) -> {
+                try (TxnContext tx = store.txn(NAMESPACE)) {
+                    for (int i = from; i < to; i++) {
+                        tx.putRecord(table, key(i), value, null);
+                    }
+                    tx.commit();
+                }
+            });
+
+            for (int i = 0; i <= snapshotDistance; i++) {
+                update();
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void measureBaseline() {
+            iterationBaseline = MemoryFootprint.measure(null);
+        }
+
+        @TearDown(Level.Iteration)
+        public void reportMemoryGrowth() {
+            MemoryFootprint.measure(null)
+                    .minus(iterationBaseline)
+                    .report(MemoryFootprint.REPORT, metric(), dataSize, tableSize);
+        }
+
+        @TearDown
+        public void tearDown() {
+            if (runtime != null) {
+                runtime.shutdown();
+            }
+            cluster.shutdown();
+        }
+
+        private String metric() {
+            return "snapshot-distance-" + snapshotDistance + "-mvo-cache-" + maxMvoCacheEntries;
+        }
+
+        long mvoCacheHits() {
+            return runtime.getObjectsView().getMvoCache().getObjectCache().stats().hitCount();
+        }
+
+        long mvoCacheMisses() {
+            return runtime.getObjectsView().getMvoCache().getObjectCache().stats().missCount();
+        }
+
+        /**
+         * Update a random key and publish the commit timestamp
+         */
+        void update() {
+            Timestamp timestamp;
+            try (TxnContext tx = store.txn(NAMESPACE)) {
+                tx.putRecord(table, randomKey(), value, null);
+                timestamp = tx.commit();
+            }
+
+            long commit = numCommits.get();
+            snapshots.set((int) (commit % MAX_SNAPSHOTS), timestamp);
+            numCommits.incrementAndGet();
+        }
+
+        /**
+         * A snapshot between the latest commit and snapshotDistance commits before it.
+         * There is a single writer, so a snapshot is never overwritten while it's in the range.
+         */
+        Timestamp randomSnapshot() {
+            long latest = numCommits.get() - 1;
+            long commit = latest - ThreadLocalRandom.current().nextInt(snapshotDistance + 1);
+            return snapshots.get((int) (commit % MAX_SNAPSHOTS));
+        }
+
+        Uuid randomKey() {
+            return key(ThreadLocalRandom.current().nextInt(tableSize));
+        }
+
+        static Uuid key(int id) {
+            return Uuid.newBuilder()
+                    .setMsb(id)
+                    .setLsb(id)
+                    .build();
+        }
+    }
+
+    /**
+     * Hits, misses and hit rate of the multi-version object cache during an iteration.
+     * The cache is shared by all the threads of the runtime, so only the single writer thread reports it.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class MvoCacheCounters {
+        public long mvoCacheHits;
+        public long mvoCacheMisses;
+        public double mvoCacheHitRate;
+
+        private long hitsBaseline;
+        private long missesBaseline;
+
+        @Setup(Level.Iteration)
+        public void reset(SnapshotState state) {
+            mvoCacheHits = 0;
+            mvoCacheMisses = 0;
+            mvoCacheHitRate = 0;
+            hitsBaseline = state.mvoCacheHits();
+            missesBaseline = state.mvoCacheMisses();
+        }
+
+        @TearDown(Level.Iteration)
+        public void collect(SnapshotState state) {
+            mvoCacheHits = state.mvoCacheHits() - hitsBaseline;
+            mvoCacheMisses = state.mvoCacheMisses() - missesBaseline;
+
+            long lookups = mvoCacheHits + mvoCacheMisses;
+            mvoCacheHitRate = lookups == 0 ? 0 : (double) mvoCacheHits / lookups;
+        }
+    }
+
+    /**
+     * Read a random key at a historical snapshot
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    @Group("snapshotRead")
+    @GroupThreads(3)
+    public void read(Blackhole blackhole, SnapshotState state) {
+        try (TxnContext tx = state.getStore().txn(NAMESPACE, IsolationLevel.snapshot(state.randomSnapshot()))) {
+            blackhole.consume(tx.getRecord(state.getTable(), state.randomKey()));
+            tx.commit();
+        }
+    }
+
+    /**
+     * Concurrent writer: every commit is a new snapshot
+     *
+     * @param state    benchmark state
+     * @param counters mvo cache counters, reported in the throughput mode
+     */
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Fork(1)
+    @Group("snapshotRead")
+    @GroupThreads(1)
+    public void write(SnapshotState state, MvoCacheCounters counters) {
+        state.update();
+    }
+}
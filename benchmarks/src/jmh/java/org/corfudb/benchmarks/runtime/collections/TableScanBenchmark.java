@@ -0,0 +1,366 @@
+package org.corfudb.benchmarks.runtime.collections;
+
+import com.google.protobuf.Message;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.benchmarks.BenchmarkSchema.PlainEventInfo;
+import org.corfudb.benchmarks.runtime.collections.helper.BulkLoader;
+import org.corfudb.benchmarks.runtime.collections.helper.CorfuClusterHelper;
+import org.corfudb.benchmarks.runtime.collections.helper.HeapPeak;
+import org.corfudb.benchmarks.util.DataGenerator;
+import org.corfudb.runtime.collections.CorfuStore;
+import org.corfudb.runtime.collections.CorfuStoreEntry;
+import org.corfudb.runtime.collections.Table;
+import org.corfudb.runtime.collections.TableOptions;
+import org.corfudb.runtime.collections.TxnContext;
+import org.corfudb.utils.CommonTypes.Uuid;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Full table scans of CorfuStore through the TxnContext query APIs, the way the reporting jobs read the tables:
+ * unfiltered and filtered scans of the {@link TxnContext#entryStream} of a transaction, consumed sequentially
+ * and in parallel, and {@link TxnContext#executeQuery} which collects the matching records.
+ * <p>
+ * The primary result is scans per second, the aux counters are the scanned entries, the returned records and
+ * the serialized bytes of the returned values per second (records/s and MB/s).
+ * The filter keeps `selectivity` percent of the records.
+ * The heap high-water mark of every iteration ({@link HeapPeak}), over the heap of the loaded table, is appended
+ * to {@link #HEAP_REPORT}. The forks run with an explicit {@link #MAX_HEAP}, enough for the 10M records table.
+ * see: docs/benchmarks/corfu-table.md
+ */
+@Slf4j
+public class TableScanBenchmark {
+
+    public static final Path HEAP_REPORT = Paths.get("benchmarks", "build", "TableScanBenchmark.heap.csv");
+
+    private static final String HEAP_HEADER =
+            "benchmark,tableSize,dataSize,selectivity,maxHeapMb,tableHeapMb,scanHeapPeakMb\n";
+
+    /**
+     * Max heap of the forks, the 10M records table takes a few GB of heap
+     */
+    private static final String MAX_HEAP = "-Xmx16g";
+
+    private static final String NAMESPACE = "benchmark";
+
+    private static final int PERCENT = 100;
+
+    /**
+     * Table scan benchmark
+     *
+     * @param args args
+     * @throws RunnerException jmh runner exception
+     */
+    public static void main(String[] args) throws RunnerException {
+        String benchmarkName = TableScanBenchmark.class.getSimpleName();
+
+        Path benchmarksReportFile = Paths.get("benchmarks", "build", benchmarkName + ".csv");
+        benchmarksReportFile.toFile().getParentFile().mkdirs();
+
+        Options opt = new OptionsBuilder()
+                .include(benchmarkName)
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.CSV)
+                .result(benchmarksReportFile.toString())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @State(Scope.Benchmark)
+    @Getter
+    @Slf4j
+    public static class TableScanState {
+
+        @Param({"100000", "1000000", "10000000"})
+        private int tableSize;
+
+        @Param({"64", "256"})
+        private int dataSize;
+
+        /**
+         * Percent of the records matched by the filter of the filtered scans
+         */
+        @Param({"10"})
+        private int selectivity;
+
+        private final CorfuClusterHelper cluster = new CorfuClusterHelper();
+
+        private CorfuStore store;
+
+        private Table<Uuid, PlainEventInfo, Message> table;
+
+        private Predicate<CorfuStoreEntry<Uuid, PlainEventInfo, Message>> filter;
+
+        /**
+         * Used heap of the loaded table, after a gc
+         */
+        private long tableHeap;
+
+        private HeapPeak heapPeak;
+
+        /**
+         * Open the table and fill it with records of unique values
+         *
+         * @throws Exception corfu store exception
+         */
+        @Setup
+        public void init() throws Exception {
+            store = new CorfuStore(cluster.deploy("corfu_table_scan_benchmark").getRuntime());
+            table = store.openTable(
+                    NAMESPACE, "ScanEvents", Uuid.class, PlainEventInfo.class, null,
+                    TableOptions.fromProtoSchema(PlainEventInfo.class)
+            );
+
+            BulkLoader loader = BulkLoader.builder().numKeys(tableSize).build();
+            loader.load(table.getFullyQualifiedTableName(), (worker, from, to) -> {
+                try (TxnContext tx = store.txn(NAMESPACE)) {
+                    for (int i = from; i < to; i++) {
+                        tx.putRecord(table, key(i), event(i), null);
+                    }
+                    tx.commit();
+                }
+            });
+
+            filter = entry -> entry.getPayload().getFrequency() < selectivity;
+        }
+
+        /**
+         * Start tracking the heap peak, the used heap after a gc is the heap of the table
+         */
+        @Setup(Level.Iteration)
+        public void resetHeapPeak() {
+            System.gc();
+            tableHeap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            heapPeak = HeapPeak.start();
+        }
+
+        /**
+         * Append the heap high-water mark of the iteration to the heap report
+         *
+         * @param params benchmark params
+         */
+        @TearDown(Level.Iteration)
+        public void reportHeapPeak(BenchmarkParams params) {
+            heapPeak.close();
+            long peak = heapPeak.getPeak();
+
+            String row = String.format("%s,%d,%d,%d,%d,%d,%d%n",
+                    params.getBenchmark(), tableSize, dataSize, selectivity,
+                    megabytes(Runtime.getRuntime().maxMemory()), megabytes(tableHeap),
+                    megabytes(Math.max(0, peak - tableHeap))
+            );
+            log.info("Scan heap. {}", HEAP_HEADER + row);
+
+            try {
+                Files.createDirectories(HEAP_REPORT.getParent());
+                if (!Files.exists(HEAP_REPORT)) {
+                    Files.write(HEAP_REPORT, HEAP_HEADER.getBytes(StandardCharsets.UTF_8));
+                }
+                Files.write(HEAP_REPORT, row.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                throw new IllegalStateException("can't save scan heap report: " + HEAP_REPORT, e);
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            cluster.shutdown();
+        }
+
+        private static long megabytes(long bytes) {
+            return bytes / 1024 / 1024;
+        }
+
+        static Uuid key(int id) {
+            return Uuid.newBuilder()
+                    .setMsb(id)
+                    .setLsb(id)
+                    .build();
+        }
+
+        /**
+         * A record of a unique name of about dataSize bytes, frequency spreads the records over [0, 100)
+         */
+        PlainEventInfo event(int id) {
+            return PlainEventInfo.newBuilder()
+                    .setId(id)
+                    .setName(DataGenerator.generateDataString(dataSize))
+                    .setPort(id % 65536)
+                    .setEventTime(id)
+                    .setFrequency(id % PERCENT)
+                    .build();
+        }
+    }
+
+    /**
+     * Number of scanned entries, returned records and bytes of the returned values, reported per second
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ScanCounters {
+        public long scanned;
+        public long records;
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            scanned = 0;
+            records = 0;
+            bytes = 0;
+        }
+
+        void add(long scannedEntries, LongSummaryStatistics returned) {
+            scanned += scannedEntries;
+            records += returned.getCount();
+            bytes += returned.getSum();
+        }
+    }
+
+    /**
+     * Sequential scan of all the records
+     *
+     * @param state    benchmark state
+     * @param counters scan counters
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 10)
+    @Measurement(iterations = 3, time = 30)
+    @Threads(value = 1)
+    @Fork(value = 1, jvmArgsAppend = MAX_HEAP)
+    public void scan(TableScanState state, ScanCounters counters) {
+        try (TxnContext tx = state.getStore().txn(NAMESPACE)) {
+            counters.add(state.getTableSize(), valueSizes(tx.entryStream(state.getTable())));
+            tx.commit();
+        }
+    }
+
+    /**
+     * Parallel scan of all the records, the stream is split over the common fork-join pool
+     *
+     * @param state    benchmark state
+     * @param counters scan counters
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 10)
+    @Measurement(iterations = 3, time = 30)
+    @Threads(value = 1)
+    @Fork(value = 1, jvmArgsAppend = MAX_HEAP)
+    public void parallelScan(TableScanState state, ScanCounters counters) {
+        try (TxnContext tx = state.getStore().txn(NAMESPACE)) {
+            counters.add(state.getTableSize(), valueSizes(tx.entryStream(state.getTable()).parallel()));
+            tx.commit();
+        }
+    }
+
+    /**
+     * Sequential scan of the records matched by the filter
+     *
+     * @param state    benchmark state
+     * @param counters scan counters
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 10)
+    @Measurement(iterations = 3, time = 30)
+    @Threads(value = 1)
+    @Fork(value = 1, jvmArgsAppend = MAX_HEAP)
+    public void filteredScan(TableScanState state, ScanCounters counters) {
+        try (TxnContext tx = state.getStore().txn(NAMESPACE)) {
+            counters.add(state.getTableSize(), valueSizes(tx.entryStream(state.getTable()).filter(state.getFilter())));
+            tx.commit();
+        }
+    }
+
+    /**
+     * Parallel scan of the records matched by the filter
+     *
+     * @param state    benchmark state
+     * @param counters scan counters
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 10)
+    @Measurement(iterations = 3, time = 30)
+    @Threads(value = 1)
+    @Fork(value = 1, jvmArgsAppend = MAX_HEAP)
+    public void parallelFilteredScan(TableScanState state, ScanCounters counters) {
+        try (TxnContext tx = state.getStore().txn(NAMESPACE)) {
+            Stream<CorfuStoreEntry<Uuid, PlainEventInfo, Message>> stream = tx.entryStream(state.getTable())
+                    .parallel()
+                    .filter(state.getFilter());
+            counters.add(state.getTableSize(), valueSizes(stream));
+            tx.commit();
+        }
+    }
+
+    /**
+     * Filtered query, the matching records are collected into a list before they are processed
+     *
+     * @param state    benchmark state
+     * @param counters scan counters
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 10)
+    @Measurement(iterations = 3, time = 30)
+    @Threads(value = 1)
+    @Fork(value = 1, jvmArgsAppend = MAX_HEAP)
+    public void query(TableScanState state, ScanCounters counters) {
+        try (TxnContext tx = state.getStore().txn(NAMESPACE)) {
+            List<CorfuStoreEntry<Uuid, PlainEventInfo, Message>> result =
+                    tx.executeQuery(state.getTable(), state.getFilter());
+            counters.add(state.getTableSize(), valueSizes(result.stream()));
+            tx.commit();
+        }
+    }
+
+    /**
+     * Consume the stream: the number of records and the serialized size of their values
+     */
+    private static LongSummaryStatistics valueSizes(Stream<CorfuStoreEntry<Uuid, PlainEventInfo, Message>> stream) {
+        return stream
+                .mapToLong(entry -> entry.getPayload().getSerializedSize())
+                .summaryStatistics();
+    }
+}
@@ -0,0 +1,270 @@
+package org.corfudb.benchmarks.runtime.collections;
+
+import com.google.protobuf.Message;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.benchmarks.runtime.collections.helper.CorfuClusterHelper;
+import org.corfudb.benchmarks.util.DataGenerator;
+import org.corfudb.protocols.wireprotocol.ILogData;
+import org.corfudb.runtime.CorfuCompactorManagement.StringKey;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.CorfuStoreMetadata.Timestamp;
+import org.corfudb.runtime.collections.CorfuStore;
+import org.corfudb.runtime.collections.Table;
+import org.corfudb.runtime.collections.TableOptions;
+import org.corfudb.runtime.collections.TxnContext;
+import org.corfudb.utils.CommonTypes.Uuid;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction size amortization of CorfuStore writes: every transaction writes recordsPerTxn records
+ * spread over tablesPerTxn tables.
+ * Small transactions are dominated by the sequencer round trip of the commit, large transactions by
+ * the serialization and the size of the log entry.
+ * Reports records/s and bytes/s (aux counters of the throughput benchmark) and the commit latency
+ * distribution (sample mode), the log entry size of every configuration is written once to {@link #ENTRIES_REPORT}.
+ * see: docs/benchmarks/corfu-table.md
+ */
+@Slf4j
+public class TransactionSizeBenchmark {
+
+    private static final String NAMESPACE = "benchmark";
+
+    public static final Path ENTRIES_REPORT = Paths.get("benchmarks", "build", "TransactionSizeBenchmark.entries.csv");
+
+    private static final String ENTRIES_HEADER = "recordsPerTxn,tablesPerTxn,dataSize,logEntryBytes,bytesPerRecord\n";
+
+    /**
+     * Transaction size benchmark
+     *
+     * @param args args
+     * @throws RunnerException jmh runner exception
+     */
+    public static void main(String[] args) throws RunnerException {
+        String benchmarkName = TransactionSizeBenchmark.class.getSimpleName();
+
+        Path benchmarksReportFile = Paths.get("benchmarks", "build", benchmarkName + ".csv");
+        benchmarksReportFile.toFile().getParentFile().mkdirs();
+
+        try {
+            Files.deleteIfExists(ENTRIES_REPORT);
+        } catch (IOException e) {
+            throw new IllegalStateException("can't delete the log entry report: " + ENTRIES_REPORT, e);
+        }
+
+        Options opt = new OptionsBuilder()
+                .include(benchmarkName)
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.CSV)
+                .result(benchmarksReportFile.toString())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @State(Scope.Benchmark)
+    @Getter
+    @Slf4j
+    public static class TransactionState {
+
+        @Param({"256"})
+        private int dataSize;
+
+        @Param({"1", "10", "100", "1000", "10000"})
+        private int recordsPerTxn;
+
+        @Param({"1", "4"})
+        private int tablesPerTxn;
+
+        /**
+         * Number of keys of every table, transactions overwrite random keys
+         */
+        @Param({"100000"})
+        private int keySpace;
+
+        private final CorfuClusterHelper cluster = new CorfuClusterHelper();
+
+        private CorfuRuntime runtime;
+
+        private CorfuStore store;
+
+        private final List<Table<Uuid, StringKey, Message>> tables = new ArrayList<>();
+
+        private StringKey value;
+
+        /**
+         * Open the tables and measure the log entry of a transaction
+         *
+         * @throws Exception corfu store exception
+         */
+        @Setup
+        public void init() throws Exception {
+            runtime = cluster.deploy("corfu_transaction_size_benchmark").getRuntime();
+            store = new CorfuStore(runtime);
+
+            for (int i = 0; i < tablesPerTxn; i++) {
+                tables.add(store.openTable(
+                        NAMESPACE, "TxnTable" + i, Uuid.class, StringKey.class, null,
+                        TableOptions.fromProtoSchema(StringKey.class)
+                ));
+            }
+
+            value = StringKey.newBuilder()
+                    .setKey(DataGenerator.generateDataString(dataSize))
+                    .build();
+
+            reportLogEntrySize(commit(null));
+        }
+
+        @TearDown
+        public void tearDown() {
+            cluster.shutdown();
+        }
+
+        /**
+         * Write recordsPerTxn random keys, round robin over the tables, in a single transaction
+         *
+         * @param counters write counters, null if the transaction is not counted
+         * @return commit timestamp
+         */
+        Timestamp commit(WriteCounters counters) {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            long bytes = 0;
+            Timestamp timestamp;
+            try (TxnContext tx = store.txn(NAMESPACE)) {
+                for (int i = 0; i < recordsPerTxn; i++) {
+                    int id = rnd.nextInt(keySpace);
+                    Uuid key = Uuid.newBuilder()
+                            .setMsb(id)
+                            .setLsb(id)
+                            .build();
+                    tx.putRecord(tables.get(i % tablesPerTxn), key, value, null);
+                    bytes += key.getSerializedSize() + value.getSerializedSize();
+                }
+                timestamp = tx.commit();
+            }
+
+            if (counters != null) {
+                counters.add(recordsPerTxn, bytes);
+            }
+            return timestamp;
+        }
+
+        /**
+         * Append the log entry size of the configuration, once: every benchmark method runs a trial
+         * of the same params
+         */
+        private void reportLogEntrySize(Timestamp timestamp) {
+            String configuration = recordsPerTxn + "," + tablesPerTxn + "," + dataSize + ",";
+
+            try {
+                if (Files.exists(ENTRIES_REPORT) && Files.readAllLines(ENTRIES_REPORT, StandardCharsets.UTF_8)
+                        .stream()
+                        .anyMatch(line -> line.startsWith(configuration))) {
+                    return;
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("can't read the log entry report: " + ENTRIES_REPORT, e);
+            }
+
+            ILogData entry = runtime.getAddressSpaceView().read(timestamp.getSequence());
+            int entryBytes = entry.getSizeEstimate();
+            String row = configuration + entryBytes + "," + entryBytes / recordsPerTxn + "\n";
+            log.info("Log entry: {}", ENTRIES_HEADER + row);
+
+            try {
+                Files.createDirectories(ENTRIES_REPORT.getParent());
+                if (!Files.exists(ENTRIES_REPORT)) {
+                    Files.write(ENTRIES_REPORT, ENTRIES_HEADER.getBytes(StandardCharsets.UTF_8));
+                }
+                Files.write(ENTRIES_REPORT, row.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                throw new IllegalStateException("can't save the log entry size: " + ENTRIES_REPORT, e);
+            }
+        }
+    }
+
+    /**
+     * Number of written records and bytes (serialized keys and values), reported per second
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class WriteCounters {
+        public long records;
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            records = 0;
+            bytes = 0;
+        }
+
+        void add(int numRecords, long numBytes) {
+            records += numRecords;
+            bytes += numBytes;
+        }
+    }
+
+    /**
+     * Transaction throughput, records/s and bytes/s are reported along with the transactions/s
+     *
+     * @param state    benchmark state
+     * @param counters write counters
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 10)
+    @Measurement(iterations = 3, time = 20)
+    @Threads(value = 1)
+    @Fork(1)
+    public void commitThroughput(TransactionState state, WriteCounters counters) {
+        state.commit(counters);
+    }
+
+    /**
+     * Commit latency distribution of a transaction
+     *
+     * @param state benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 1, time = 10)
+    @Measurement(iterations = 3, time = 20)
+    @Threads(value = 1)
+    @Fork(1)
+    public void commitLatency(TransactionState state) {
+        state.commit(null);
+    }
+}
@@ -0,0 +1,218 @@
+package org.corfudb.benchmarks.runtime.collections.experiment.mmap;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.corfudb.benchmarks.util.DataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the off-heap memory-mapped map: primitive get/put/remove (run with the gc profiler
+ * to see that only the returned values are allocated) and the time to reopen the map after a crash,
+ * when the index is rebuilt from the value log.
+ */
+@Slf4j
+public class MappedIntMapBenchmark {
+
+    /**
+     * MappedIntMap benchmark
+     *
+     * @param args args
+     * @throws RunnerException jmh runner exception
+     */
+    public static void main(String[] args) throws RunnerException {
+        String benchmarkName = MappedIntMapBenchmark.class.getSimpleName();
+
+        Path benchmarksReportFile = Paths.get("benchmarks", "build", benchmarkName + ".csv");
+        benchmarksReportFile.toFile().getParentFile().mkdirs();
+
+        Options opt = new OptionsBuilder()
+                .include(benchmarkName)
+                .shouldFailOnError(true)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.CSV)
+                .result(benchmarksReportFile.toString())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @State(Scope.Benchmark)
+    @Getter
+    @Slf4j
+    public static class MappedIntMapState {
+
+        @Param({"64", "256", "1024"})
+        private int valueSize;
+
+        @Param({"1000000"})
+        private int tableSize;
+
+        private Path dataPath;
+
+        private MappedIntMap map;
+
+        private byte[] value;
+
+        /**
+         * Open the map and fill it with values
+         *
+         * @throws IOException io exception
+         */
+        @Setup
+        public void init() throws IOException {
+            dataPath = Files.createTempDirectory("mmap_map");
+            value = DataGenerator.generateDataBytes(valueSize);
+
+            map = MappedIntMap.builder()
+                    .dataPath(dataPath)
+                    .initialCapacity(tableSize)
+                    .build()
+                    .open();
+
+            for (int i = 0; i < tableSize; i++) {
+                map.put(i, value);
+            }
+            map.flush();
+        }
+
+        public int generateKey() {
+            return ThreadLocalRandom.current().nextInt(tableSize);
+        }
+
+        /**
+         * Close the map and delete the files
+         *
+         * @throws IOException io exception
+         */
+        @TearDown
+        public void tearDown() throws IOException {
+            log.info("Entries: {}, log size: {}, compactions: {}", map.size(), map.logSize(), map.getNumCompactions());
+            map.close();
+            FileUtils.deleteDirectory(dataPath.toFile());
+        }
+    }
+
+    /**
+     * A copy of the map files taken while the map is open: the index is not clean, like after a crash
+     */
+    @State(Scope.Thread)
+    public static class CrashedCopyState {
+        private Path copyPath;
+
+        /**
+         * Copy the files of the open map
+         *
+         * @param state benchmark state
+         * @throws IOException io exception
+         */
+        @Setup(Level.Iteration)
+        public void copy(MappedIntMapState state) throws IOException {
+            state.getMap().flush();
+            copyPath = Files.createTempDirectory("mmap_map_crashed");
+            FileUtils.copyDirectory(state.getDataPath().toFile(), copyPath.toFile());
+        }
+
+        @TearDown(Level.Iteration)
+        public void delete() throws IOException {
+            FileUtils.deleteDirectory(copyPath.toFile());
+        }
+    }
+
+    /**
+     * Primitive get
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void get(Blackhole blackhole, MappedIntMapState state) {
+        blackhole.consume(state.getMap().get(state.generateKey()));
+    }
+
+    /**
+     * Primitive existence check, doesn't allocate
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void containsKey(Blackhole blackhole, MappedIntMapState state) {
+        blackhole.consume(state.getMap().containsKey(state.generateKey()));
+    }
+
+    /**
+     * Overwrite an existing key, the old record becomes garbage and is reclaimed by compaction
+     *
+     * @param state benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void update(MappedIntMapState state) {
+        state.getMap().put(state.generateKey(), state.getValue());
+    }
+
+    /**
+     * Reopen the map after a crash: the index is rebuilt by replaying the value log
+     *
+     * @param blackhole jmh blackhole
+     * @param copy      crashed copy of the map
+     * @throws IOException io exception
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    @Threads(value = 1)
+    @Fork(1)
+    public void recovery(Blackhole blackhole, CrashedCopyState copy) throws IOException {
+        try (MappedIntMap recovered = MappedIntMap.builder().dataPath(copy.copyPath).build().open()) {
+            blackhole.consume(recovered.size());
+        }
+    }
+}
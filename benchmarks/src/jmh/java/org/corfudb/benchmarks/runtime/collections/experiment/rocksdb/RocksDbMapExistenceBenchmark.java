@@ -0,0 +1,194 @@
+package org.corfudb.benchmarks.runtime.collections.experiment.rocksdb;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.corfudb.benchmarks.util.DataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures RocksDbMap existence checks (containsKey) for different hit ratios and the cost of size():
+ * the exact entry counter vs RocksDb estimation.
+ */
+@Slf4j
+public class RocksDbMapExistenceBenchmark {
+
+    /**
+     * RocksDbMap existence check benchmark
+     *
+     * @param args args
+     * @throws RunnerException jmh runner exception
+     */
+    public static void main(String[] args) throws RunnerException {
+        String benchmarkName = RocksDbMapExistenceBenchmark.class.getSimpleName();
+
+        Path benchmarksReportFile = Paths.get("benchmarks", "build", benchmarkName + ".csv");
+        benchmarksReportFile.toFile().getParentFile().mkdirs();
+
+        Options opt = new OptionsBuilder()
+                .include(benchmarkName)
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.CSV)
+                .result(benchmarksReportFile.toString())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @State(Scope.Benchmark)
+    @Getter
+    @Slf4j
+    public static class RocksDbMapState {
+        private static final int DATA_SIZE = 64;
+
+        @Param({"1000000", "10000000"})
+        private int tableSize;
+
+        /**
+         * Share of lookups for existing keys
+         */
+        @Param({"0.0", "0.5", "0.9", "1.0"})
+        private double hitRatio;
+
+        @Param({"false", "true"})
+        private boolean directBuffers;
+
+        /**
+         * size() of the exact entry counter vs RocksDb estimation
+         */
+        @Param({"false", "true"})
+        private boolean exactSize;
+
+        private Path dbPath;
+
+        private RocksDbMap<Integer, String> map;
+
+        /**
+         * Open RocksDbMap and fill it with values
+         *
+         * @throws Exception db exception
+         */
+        @Setup
+        public void init() throws Exception {
+            dbPath = Files.createTempDirectory("rocksdb_existence");
+
+            map = RocksDbMap.<Integer, String>builder()
+                    .dbPath(dbPath)
+                    .keyType(Integer.class)
+                    .valueType(String.class)
+                    .directBuffers(directBuffers)
+                    .exactSize(exactSize)
+                    .build()
+                    .init();
+
+            String value = DataGenerator.generateDataString(DATA_SIZE);
+            for (int i = 0; i < tableSize; i++) {
+                map.put(i, value);
+            }
+
+            log.info("Table size: {}, estimated num keys: {}", map.size(), map.estimateNumKeys());
+        }
+
+        /**
+         * Generates an existing key with hitRatio probability, otherwise a key out of the table range
+         *
+         * @return key
+         */
+        public int generateKey() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int key = random.nextInt(tableSize);
+            if (random.nextDouble() < hitRatio) {
+                return key;
+            }
+
+            return tableSize + key;
+        }
+
+        /**
+         * Close the map and delete the database
+         *
+         * @throws IOException io exception
+         */
+        @TearDown
+        public void tearDown() throws IOException {
+            map.close();
+            FileUtils.deleteDirectory(dbPath.toFile());
+        }
+    }
+
+    /**
+     * RocksDbMap containsKey operation
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void containsKey(Blackhole blackhole, RocksDbMapState state) {
+        blackhole.consume(state.getMap().containsKey(state.generateKey()));
+    }
+
+    /**
+     * RocksDbMap get operation, the baseline for containsKey
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void get(Blackhole blackhole, RocksDbMapState state) {
+        blackhole.consume(state.getMap().get(state.generateKey()));
+    }
+
+    /**
+     * RocksDbMap size operation
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void size(Blackhole blackhole, RocksDbMapState state) {
+        blackhole.consume(state.getMap().size());
+    }
+}
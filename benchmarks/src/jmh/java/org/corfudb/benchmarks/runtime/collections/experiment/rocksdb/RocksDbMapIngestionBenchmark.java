@@ -0,0 +1,256 @@
+package org.corfudb.benchmarks.runtime.collections.experiment.rocksdb;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.corfudb.benchmarks.util.DataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures RocksDbMap ingestion rate: single puts vs write batches vs write-behind buffer.
+ * Every thread writes its own range of bulkLoadSize new keys, like a state transfer does.
+ * A thread that runs out of its range wraps around and overwrites its keys.
+ * The bulkLoad benchmark loads the whole data set with putAll and reports the load time.
+ */
+@Slf4j
+public class RocksDbMapIngestionBenchmark {
+
+    /**
+     * RocksDbMap ingestion benchmark
+     *
+     * @param args args
+     * @throws RunnerException jmh runner exception
+     */
+    public static void main(String[] args) throws RunnerException {
+        String benchmarkName = RocksDbMapIngestionBenchmark.class.getSimpleName();
+
+        Path benchmarksReportFile = Paths.get("benchmarks", "build", benchmarkName + ".csv");
+        benchmarksReportFile.toFile().getParentFile().mkdirs();
+
+        Options opt = new OptionsBuilder()
+                .include(benchmarkName)
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.CSV)
+                .result(benchmarksReportFile.toString())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @State(Scope.Benchmark)
+    @Getter
+    @Slf4j
+    public static class RocksDbMapState {
+
+        @Param({"256", "1024"})
+        private int dataSize;
+
+        @Param({"100", "1000", "10000"})
+        private int batchSize;
+
+        /**
+         * Size of keys and values that flushes a write batch
+         */
+        @Param({"65536", "4194304"})
+        private long maxBatchBytes;
+
+        @Param({"10000000"})
+        private int bulkLoadSize;
+
+        private final AtomicInteger threadCounter = new AtomicInteger();
+
+        private Path dbPath;
+
+        private RocksDbMap<Integer, String> map;
+
+        private RocksDbWriteBehind<Integer, String> writeBehind;
+
+        private String value;
+
+        /**
+         * Open an empty RocksDbMap
+         *
+         * @throws Exception db exception
+         */
+        @Setup
+        public void init() throws Exception {
+            dbPath = Files.createTempDirectory("rocksdb_ingestion");
+            value = DataGenerator.generateDataString(dataSize);
+
+            map = RocksDbMap.<Integer, String>builder()
+                    .dbPath(dbPath)
+                    .keyType(Integer.class)
+                    .valueType(String.class)
+                    .build()
+                    .init();
+
+            writeBehind = RocksDbWriteBehind.<Integer, String>builder()
+                    .map(map)
+                    .maxBatchSize(batchSize)
+                    .maxBatchBytes(maxBatchBytes)
+                    .flushInterval(Duration.ofMillis(100))
+                    .build();
+        }
+
+        /**
+         * Close the map and delete the database
+         *
+         * @throws IOException io exception
+         */
+        @TearDown
+        public void tearDown() throws IOException {
+            writeBehind.close();
+            log.info("Ingested entries: {}, write-behind flushes: {}", map.size(), writeBehind.getNumFlushes());
+
+            map.close();
+            FileUtils.deleteDirectory(dbPath.toFile());
+        }
+    }
+
+    /**
+     * Every thread writes a unique range of keys with its own batch writer
+     */
+    @State(Scope.Thread)
+    public static class WriterState {
+        private int firstKey;
+        private int keyRange;
+        private int keyIndex;
+        private RocksDbBatchWriter<Integer, String> batchWriter;
+
+        /**
+         * Init the key range [thread * bulkLoadSize, (thread + 1) * bulkLoadSize) and the batch writer of the thread
+         *
+         * @param state benchmark state
+         */
+        @Setup
+        public void init(RocksDbMapState state) {
+            int thread = state.getThreadCounter().getAndIncrement();
+            keyRange = state.getBulkLoadSize();
+            if ((long) (thread + 1) * keyRange > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Key ranges of " + (thread + 1) + " threads exceed the key space");
+            }
+            firstKey = thread * keyRange;
+
+            batchWriter = RocksDbBatchWriter.<Integer, String>builder()
+                    .map(state.getMap())
+                    .maxBatchSize(state.getBatchSize())
+                    .maxBatchBytes(state.getMaxBatchBytes())
+                    .build();
+        }
+
+        public int nextKey() {
+            int key = firstKey + keyIndex;
+            keyIndex = (keyIndex + 1) % keyRange;
+            return key;
+        }
+
+        @TearDown
+        public void tearDown() {
+            batchWriter.close();
+        }
+    }
+
+    /**
+     * One RocksDb write per entry
+     *
+     * @param state  benchmark state
+     * @param writer writer state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void singlePut(RocksDbMapState state, WriterState writer) {
+        state.getMap().put(writer.nextKey(), state.getValue());
+    }
+
+    /**
+     * Entries written in write batches of batchSize entries
+     *
+     * @param state  benchmark state
+     * @param writer writer state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void batchPut(RocksDbMapState state, WriterState writer) {
+        writer.batchWriter.put(writer.nextKey(), state.getValue());
+    }
+
+    /**
+     * Entries coalesced by the write-behind buffer shared by all the threads
+     *
+     * @param state  benchmark state
+     * @param writer writer state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void writeBehindPut(RocksDbMapState state, WriterState writer) {
+        state.getWriteBehind().put(writer.nextKey(), state.getValue());
+    }
+
+    /**
+     * Loads bulkLoadSize entries with putAll in chunks of batchSize entries
+     *
+     * @param state  benchmark state
+     * @param writer writer state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Threads(value = 1)
+    @Fork(1)
+    public void bulkLoad(RocksDbMapState state, WriterState writer) {
+        Map<Integer, String> chunk = new HashMap<>();
+        for (int i = 0; i < state.getBulkLoadSize(); i++) {
+            chunk.put(writer.nextKey(), state.getValue());
+            if (chunk.size() == state.getBatchSize()) {
+                state.getMap().putAll(chunk);
+                chunk.clear();
+            }
+        }
+
+        state.getMap().putAll(chunk);
+    }
+}
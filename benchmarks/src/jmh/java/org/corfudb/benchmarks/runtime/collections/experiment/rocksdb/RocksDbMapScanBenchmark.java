@@ -0,0 +1,242 @@
+package org.corfudb.benchmarks.runtime.collections.experiment.rocksdb;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.corfudb.benchmarks.util.DataGenerator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Measures RocksDbMap full scan throughput (entries/s and bytes/s in the aux counters)
+ * and heap high-water mark of: a materialized copy of the map, a lazy sequential scan and a lazy parallel scan.
+ */
+@Slf4j
+public class RocksDbMapScanBenchmark {
+
+    /**
+     * RocksDbMap scan benchmark
+     *
+     * @param args args
+     * @throws RunnerException jmh runner exception
+     */
+    public static void main(String[] args) throws RunnerException {
+        String benchmarkName = RocksDbMapScanBenchmark.class.getSimpleName();
+
+        Path benchmarksReportFile = Paths.get("benchmarks", "build", benchmarkName + ".csv");
+        benchmarksReportFile.toFile().getParentFile().mkdirs();
+
+        Options opt = new OptionsBuilder()
+                .include(benchmarkName)
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.CSV)
+                .result(benchmarksReportFile.toString())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @State(Scope.Benchmark)
+    @Getter
+    @Slf4j
+    public static class RocksDbMapState {
+
+        @Param({"256", "1024"})
+        private int dataSize;
+
+        @Param({"100000", "1000000"})
+        private int tableSize;
+
+        /**
+         * Bounded scans (parallel splits) need total order seek, which plain table doesn't support
+         */
+        @Param({"block-lru-bloom"})
+        private String profile;
+
+        private Path dbPath;
+
+        private RocksDbMap<Integer, String> map;
+
+        /**
+         * Open RocksDbMap and fill it with values
+         *
+         * @throws Exception db exception
+         */
+        @Setup
+        public void init() throws Exception {
+            dbPath = Files.createTempDirectory("rocksdb_scan");
+
+            map = RocksDbMap.<Integer, String>builder()
+                    .dbPath(dbPath)
+                    .keyType(Integer.class)
+                    .valueType(String.class)
+                    .options(RocksDbProfile.fromName(profile).options())
+                    .build()
+                    .init();
+
+            try (RocksDbBatchWriter<Integer, String> writer = map.batchWriter()) {
+                for (int i = 0; i < tableSize; i++) {
+                    writer.put(i, DataGenerator.generateDataString(dataSize));
+                }
+            }
+        }
+
+        /**
+         * Reset the peak usage of the heap memory pools
+         */
+        @Setup(Level.Iteration)
+        public void resetHeapPeak() {
+            System.gc();
+            heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+        }
+
+        /**
+         * Report the heap high-water mark of the iteration
+         */
+        @TearDown(Level.Iteration)
+        public void reportHeapPeak() {
+            long peak = heapPools().stream()
+                    .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                    .sum();
+            log.info("Heap high-water mark: {} MB", peak / 1024 / 1024);
+        }
+
+        private List<MemoryPoolMXBean> heapPools() {
+            return ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP)
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * Close the map and delete the database
+         *
+         * @throws IOException io exception
+         */
+        @TearDown
+        public void tearDown() throws IOException {
+            map.close();
+            FileUtils.deleteDirectory(dbPath.toFile());
+        }
+    }
+
+    /**
+     * Number of scanned entries and bytes, reported per second
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ScanCounters {
+        public long entries;
+        public long bytes;
+
+        void add(long scannedEntries, long scannedBytes) {
+            entries += scannedEntries;
+            bytes += scannedBytes;
+        }
+    }
+
+    /**
+     * Copies the whole map into a list before processing, the way keySet/values used to work
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     * @param counters  scan counters
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 10)
+    @Measurement(iterations = 3, time = 30)
+    @Threads(value = 1)
+    @Fork(1)
+    public void materializedScan(Blackhole blackhole, RocksDbMapState state, ScanCounters counters) {
+        List<Entry<Integer, String>> entries;
+        try (Stream<Entry<Integer, String>> stream = state.getMap().entryStream()) {
+            entries = stream.collect(Collectors.toList());
+        }
+
+        long bytes = 0;
+        for (Entry<Integer, String> entry : entries) {
+            bytes += entry.getValue().length();
+            blackhole.consume(entry);
+        }
+        counters.add(entries.size(), bytes);
+    }
+
+    /**
+     * Lazy sequential scan
+     *
+     * @param state    benchmark state
+     * @param counters scan counters
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 10)
+    @Measurement(iterations = 3, time = 30)
+    @Threads(value = 1)
+    @Fork(1)
+    public void lazyScan(RocksDbMapState state, ScanCounters counters) {
+        try (Stream<Entry<Integer, String>> stream = state.getMap().entryStream()) {
+            scan(stream, counters);
+        }
+    }
+
+    /**
+     * Lazy parallel scan, the map is split by key ranges
+     *
+     * @param state    benchmark state
+     * @param counters scan counters
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 10)
+    @Measurement(iterations = 3, time = 30)
+    @Threads(value = 1)
+    @Fork(1)
+    public void parallelScan(RocksDbMapState state, ScanCounters counters) {
+        try (Stream<Entry<Integer, String>> stream = state.getMap().entryStream().parallel()) {
+            scan(stream, counters);
+        }
+    }
+
+    private void scan(Stream<Entry<Integer, String>> stream, ScanCounters counters) {
+        LongSummaryStatistics stats = stream
+                .mapToLong(entry -> entry.getValue().length())
+                .summaryStatistics();
+        counters.add(stats.getCount(), stats.getSum());
+    }
+}
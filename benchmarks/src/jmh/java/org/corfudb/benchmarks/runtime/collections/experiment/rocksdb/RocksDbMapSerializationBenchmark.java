@@ -0,0 +1,154 @@
+package org.corfudb.benchmarks.runtime.collections.experiment.rocksdb;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.corfudb.benchmarks.util.DataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares RocksDbMap serialization paths: a new heap buffer per key/value vs pooled direct buffers.
+ * Run with the gc profiler to see allocation rate (gc.alloc.rate.norm) of every path.
+ */
+@Slf4j
+public class RocksDbMapSerializationBenchmark {
+
+    /**
+     * RocksDbMap serialization benchmark
+     *
+     * @param args args
+     * @throws RunnerException jmh runner exception
+     */
+    public static void main(String[] args) throws RunnerException {
+        String benchmarkName = RocksDbMapSerializationBenchmark.class.getSimpleName();
+
+        Path benchmarksReportFile = Paths.get("benchmarks", "build", benchmarkName + ".csv");
+        benchmarksReportFile.toFile().getParentFile().mkdirs();
+
+        Options opt = new OptionsBuilder()
+                .include(benchmarkName)
+                .shouldFailOnError(true)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.CSV)
+                .result(benchmarksReportFile.toString())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @State(Scope.Benchmark)
+    @Getter
+    @Slf4j
+    public static class RocksDbMapState {
+        private static final int TABLE_SIZE = 10_000;
+
+        @Param({"64", "256", "1024", "4096", "16384", "65536"})
+        private int valueSize;
+
+        @Param({"false", "true"})
+        private boolean directBuffers;
+
+        private Path dbPath;
+
+        private RocksDbMap<Integer, String> map;
+
+        private String value;
+
+        /**
+         * Open RocksDbMap and fill it with values
+         *
+         * @throws Exception db exception
+         */
+        @Setup
+        public void init() throws Exception {
+            dbPath = Files.createTempDirectory("rocksdb_serialization");
+            value = DataGenerator.generateDataString(valueSize);
+
+            map = RocksDbMap.<Integer, String>builder()
+                    .dbPath(dbPath)
+                    .keyType(Integer.class)
+                    .valueType(String.class)
+                    .directBuffers(directBuffers)
+                    .build()
+                    .init();
+
+            for (int i = 0; i < TABLE_SIZE; i++) {
+                map.put(i, value);
+            }
+        }
+
+        public int generateKey() {
+            return ThreadLocalRandom.current().nextInt(TABLE_SIZE);
+        }
+
+        /**
+         * Close the map and delete the database
+         *
+         * @throws IOException io exception
+         */
+        @TearDown
+        public void tearDown() throws IOException {
+            map.close();
+            FileUtils.deleteDirectory(dbPath.toFile());
+        }
+    }
+
+    /**
+     * RocksDbMap put operation
+     *
+     * @param state benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void put(RocksDbMapState state) {
+        state.getMap().put(state.generateKey(), state.getValue());
+    }
+
+    /**
+     * RocksDbMap get operation
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void get(Blackhole blackhole, RocksDbMapState state) {
+        blackhole.consume(state.getMap().get(state.generateKey()));
+    }
+}
@@ -0,0 +1,207 @@
+package org.corfudb.benchmarks.runtime.collections.experiment.rocksdb;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.corfudb.benchmarks.util.DataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares RocksDb tuning profiles (table format, block cache, bloom filters, compression) on RocksDbMap.
+ * RocksDb statistics of every profile (see {@link RocksDbMap#getStats()}) are saved next to the csv report.
+ */
+@Slf4j
+public class RocksDbProfileBenchmark {
+
+    private static final Path REPORT_DIR = Paths.get("benchmarks", "build");
+
+    /**
+     * RocksDb profile benchmark
+     *
+     * @param args args
+     * @throws RunnerException jmh runner exception
+     */
+    public static void main(String[] args) throws RunnerException {
+        String benchmarkName = RocksDbProfileBenchmark.class.getSimpleName();
+
+        Path benchmarksReportFile = REPORT_DIR.resolve(benchmarkName + ".csv");
+        benchmarksReportFile.toFile().getParentFile().mkdirs();
+
+        Options opt = new OptionsBuilder()
+                .include(benchmarkName)
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.CSV)
+                .result(benchmarksReportFile.toString())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @State(Scope.Benchmark)
+    @Getter
+    @Slf4j
+    public static class RocksDbProfileState {
+
+        @Param({"plain-prefix", "block-lru-bloom", "block-partitioned-index", "lz4", "zstd"})
+        private String profile;
+
+        @Param({"256", "1024"})
+        private int dataSize;
+
+        @Param({"1000000"})
+        private int tableSize;
+
+        private Path dbPath;
+
+        private RocksDbMap<Integer, String> map;
+
+        /**
+         * Open RocksDbMap with the profile options and fill it with values
+         *
+         * @throws Exception db exception
+         */
+        @Setup
+        public void init() throws Exception {
+            dbPath = Files.createTempDirectory("rocksdb_profile");
+
+            map = RocksDbMap.<Integer, String>builder()
+                    .dbPath(dbPath)
+                    .keyType(Integer.class)
+                    .valueType(String.class)
+                    .options(RocksDbProfile.fromName(profile).options())
+                    .build()
+                    .init();
+
+            try (RocksDbBatchWriter<Integer, String> writer = map.batchWriter()) {
+                for (int i = 0; i < tableSize; i++) {
+                    writer.put(i, DataGenerator.generateDataString(dataSize));
+                }
+            }
+        }
+
+        public int generateKey() {
+            return ThreadLocalRandom.current().nextInt(tableSize);
+        }
+
+        /**
+         * Save the database statistics, close the map and delete the database
+         *
+         * @throws Exception db or io exception
+         */
+        @TearDown
+        public void tearDown() throws Exception {
+            saveStats();
+            map.close();
+            FileUtils.deleteDirectory(dbPath.toFile());
+        }
+
+        private void saveStats() throws Exception {
+            String stats = map.getStats();
+            log.info("RocksDb stats. Profile: {}, data size: {}\n{}", profile, dataSize, stats);
+
+            String statsFileName = String.format(
+                    "%s-%s-%d-%d.stats.txt",
+                    RocksDbProfileBenchmark.class.getSimpleName(), profile, dataSize, tableSize
+            );
+            Path statsFile = REPORT_DIR.resolve(statsFileName);
+            try {
+                Files.write(statsFile, stats.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                log.warn("Can't save RocksDb stats: {}", statsFile, e);
+            }
+        }
+    }
+
+    /**
+     * Random get
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void get(Blackhole blackhole, RocksDbProfileState state) {
+        blackhole.consume(state.getMap().get(state.generateKey()));
+    }
+
+    /**
+     * Random existence check
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void containsKey(Blackhole blackhole, RocksDbProfileState state) {
+        blackhole.consume(state.getMap().containsKey(state.generateKey()));
+    }
+
+    /**
+     * Random put (update)
+     *
+     * @param state benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 4)
+    @Fork(1)
+    public void put(RocksDbProfileState state) {
+        state.getMap().put(state.generateKey(), DataGenerator.generateDataString(state.getDataSize()));
+    }
+
+    /**
+     * Full sequential scan
+     *
+     * @param blackhole jmh blackhole
+     * @param state     benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(value = 1)
+    @Fork(1)
+    public void scan(Blackhole blackhole, RocksDbProfileState state) {
+        state.getMap().values().forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,161 @@
+package org.corfudb.benchmarks.runtime.collections.helper;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.runtime.exceptions.TransactionAbortedException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pre-populates benchmark tables: the key space [0, numKeys) is split into batches of batchSize keys,
+ * the batches are written by numWorkers threads, every batch is supposed to be a single transaction.
+ * Workers take the next batch from a shared cursor, so a slow worker doesn't delay the load.
+ * A batch aborted by a conflict with another worker is retried up to maxRetries times.
+ */
+@Slf4j
+public class BulkLoader {
+    public static final int DEFAULT_BATCH_SIZE = 1_000;
+    public static final int DEFAULT_WORKERS = Runtime.getRuntime().availableProcessors();
+    public static final int DEFAULT_MAX_RETRIES = 10;
+
+    private final int numKeys;
+    private final int numWorkers;
+    private final int batchSize;
+    private final int maxRetries;
+
+    @Builder
+    public BulkLoader(int numKeys, int numWorkers, int batchSize, int maxRetries) {
+        if (numKeys < 0) {
+            throw new IllegalArgumentException("Invalid number of keys: " + numKeys);
+        }
+
+        this.numKeys = numKeys;
+        this.numWorkers = numWorkers > 0 ? numWorkers : DEFAULT_WORKERS;
+        this.batchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+        this.maxRetries = maxRetries > 0 ? maxRetries : DEFAULT_MAX_RETRIES;
+    }
+
+    /**
+     * Writes a batch of keys
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+
+        /**
+         * Write keys in the range [fromKey, toKey)
+         *
+         * @param worker  worker number in the range [0, numWorkers), allows to choose a runtime per worker,
+         *                like {@code CloudNativeClusterBenchmarkStateUtil.loadTables}
+         * @param fromKey first key, inclusive
+         * @param toKey   last key, exclusive
+         * @throws Exception any error fails the load
+         */
+        void write(int worker, int fromKey, int toKey) throws Exception;
+    }
+
+    /**
+     * Load all the keys
+     *
+     * @param name   load name, for logging
+     * @param writer batch writer
+     * @return load statistics
+     */
+    public LoadResult load(String name, @NonNull BatchWriter writer) {
+        int numBatches = (int) ((numKeys + (long) batchSize - 1) / batchSize);
+        int workers = Math.max(1, Math.min(numWorkers, numBatches));
+        log.info("Load {}: {} keys, {} batches, {} workers", name, numKeys, numBatches, workers);
+
+        AtomicInteger nextBatch = new AtomicInteger();
+        AtomicLong aborts = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                int worker = i;
+                futures.add(executor.submit(() -> {
+                    int batch = nextBatch.getAndIncrement();
+                    while (batch < numBatches) {
+                        int fromKey = batch * batchSize;
+                        write(writer, worker, fromKey, Math.min(numKeys, fromKey + batchSize), aborts);
+                        batch = nextBatch.getAndIncrement();
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("can't load " + name, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("load interrupted: " + name, e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        LoadResult result = new LoadResult(numKeys, numBatches, workers, aborts.get(), elapsed);
+        log.info("Load {} finished: {}", name, result);
+        return result;
+    }
+
+    /**
+     * Write a batch, retry the batch if its transaction is aborted
+     */
+    private void write(BatchWriter writer, int worker, int fromKey, int toKey, AtomicLong aborts) throws Exception {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                writer.write(worker, fromKey, toKey);
+                return;
+            } catch (TransactionAbortedException e) {
+                aborts.incrementAndGet();
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+                log.debug("Batch [{}, {}) aborted: {}, retry", fromKey, toKey, e.getAbortCause());
+            }
+        }
+    }
+
+    /**
+     * Load statistics
+     */
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class LoadResult {
+        private final int numKeys;
+        private final int numBatches;
+        private final int numWorkers;
+        /**
+         * Number of aborted batch transactions, including the retried ones
+         */
+        private final long numAborts;
+        private final Duration elapsed;
+
+        /**
+         * Load throughput
+         *
+         * @return keys per second
+         */
+        @ToString.Include
+        public double keysPerSecond() {
+            return numKeys * 1_000_000_000.0 / Math.max(1, elapsed.toNanos());
+        }
+    }
+}
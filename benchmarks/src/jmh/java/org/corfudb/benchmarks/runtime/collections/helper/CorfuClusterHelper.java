@@ -0,0 +1,119 @@
+package org.corfudb.benchmarks.runtime.collections.helper;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.benchmarks.cluster.ClusterBenchmark;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.universe.api.UniverseManager;
+import org.corfudb.universe.api.universe.group.cluster.Cluster.ClusterType;
+import org.corfudb.universe.api.workflow.UniverseWorkflow;
+import org.corfudb.universe.api.workflow.UniverseWorkflow.WorkflowConfig;
+import org.corfudb.universe.universe.group.cluster.corfu.CorfuCluster;
+import org.corfudb.universe.universe.node.client.CorfuClient;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deploys a corfu cluster (docker, a single node by default) and provides a corfu runtime connected to it.
+ * Used by the collection benchmark states to open corfu tables.
+ * Benchmarks of several clients connect additional runtimes with {@link #newClient()}.
+ */
+@Slf4j
+public class CorfuClusterHelper {
+
+    private UniverseWorkflow workflow;
+
+    private CorfuCluster<?, ?> corfuCluster;
+
+    private CorfuClient corfuClient;
+
+    private final List<CorfuClient> clients = new ArrayList<>();
+
+    @Getter
+    private CorfuRuntime runtime;
+
+    /**
+     * Deploy a corfu cluster and connect a corfu runtime
+     *
+     * @param testName universe name
+     * @return cluster helper
+     */
+    public CorfuClusterHelper deploy(String testName) {
+        return deploy(testName, 1);
+    }
+
+    /**
+     * Deploy a corfu cluster of numNodes servers and connect a corfu runtime
+     *
+     * @param testName universe name
+     * @param numNodes number of corfu servers
+     * @return cluster helper
+     */
+    public CorfuClusterHelper deploy(String testName, int numNodes) {
+        log.info("Deploy corfu cluster: {}, nodes: {}", testName, numNodes);
+
+        WorkflowConfig config = WorkflowConfig.builder()
+                .testName(testName)
+                .corfuServerVersion(ClusterBenchmark.getAppVersion())
+                .build();
+
+        UniverseManager universeManager = UniverseManager.builder()
+                .config(config)
+                .build();
+
+        workflow = universeManager.dockerWorkflow(wf -> {
+            wf.setup(fixture -> {
+                fixture.getCluster().numNodes(numNodes);
+                fixture.getCorfuServerContainer().image("corfudb/corfu-server");
+                fixture.getCommonServerParams().universeDirectory(Paths.get("benchmarks", "build"));
+
+                //disable automatic shutdown
+                fixture.getUniverse().cleanUpEnabled(false);
+            });
+
+            wf.deploy();
+
+            corfuCluster = wf.getUniverse().getGroup(ClusterType.CORFU);
+            corfuClient = corfuCluster.getLocalCorfuClient();
+        });
+
+        runtime = corfuClient.getRuntime();
+        return this;
+    }
+
+    /**
+     * Connect one more corfu client (a separate runtime) to the deployed cluster,
+     * the client is shut down along with the cluster
+     *
+     * @return corfu client
+     */
+    public CorfuClient newClient() {
+        if (corfuCluster == null) {
+            throw new IllegalStateException("The cluster is not deployed");
+        }
+
+        CorfuClient client = corfuCluster.getLocalCorfuClient();
+        clients.add(client);
+        return client;
+    }
+
+    /**
+     * Shutdown the corfu runtimes and the cluster
+     */
+    public void shutdown() {
+        for (CorfuClient client : clients) {
+            client.shutdown();
+        }
+        clients.clear();
+
+        if (corfuClient != null) {
+            corfuClient.shutdown();
+        }
+
+        if (workflow != null) {
+            workflow.getUniverse().shutdown();
+        }
+    }
+}
@@ -4,7 +4,9 @@ import lombok.Builder;
 import lombok.Builder.Default;
 import lombok.Getter;
 import lombok.NonNull;
+import org.corfudb.benchmarks.util.KeyDistribution;
 import org.corfudb.common.util.ClassUtils;
+import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.collections.ICorfuTable;
 
 import java.util.Map;
@@ -31,30 +33,117 @@ public class CorfuTableBenchmarkHelper {
     private final int tableSize;
 
     /**
-     * Generate a random number
+     * Key access distribution, keys are uniformly random if not set
+     */
+    private final KeyDistribution keyDistribution;
+
+    /**
+     * If set, {@link #fillTable()} writes every batch of keys in a transaction of the runtime
+     */
+    private final CorfuRuntime runtime;
+
+    /**
+     * Number of threads of {@link #fillTable()}, default: {@link BulkLoader#DEFAULT_WORKERS}
+     */
+    private final int loadThreads;
+
+    /**
+     * Number of keys per transaction of {@link #fillTable()}, default: {@link BulkLoader#DEFAULT_BATCH_SIZE}
+     */
+    private final int loadBatchSize;
+
+    /**
+     * Generate a random key of the key distribution
      *
      * @return random number
      */
     public int generate() {
         check();
-        return random.nextInt(getTableSize() - 1);
+        if (keyDistribution == null) {
+            return random.nextInt(getTableSize() - 1);
+        }
+
+        return keyDistribution.nextKey();
+    }
+
+    /**
+     * Insert a value, the key distribution is notified about the inserted key
+     *
+     * @param key   key
+     * @param value value
+     */
+    public void insert(int key, String value) {
+        table.insert(key, value);
+        if (keyDistribution != null) {
+            keyDistribution.onInsert(key);
+        }
     }
 
     /**
-     * Fill corfu table with random values
+     * Generate a random key that is never inserted by {@link #fillTable()}
+     *
+     * @return random number outside the table key range
+     */
+    public int generateMissingKey() {
+        return getTableSize() + generate();
+    }
+
+    /**
+     * Fill corfu table with random values, keys are loaded in parallel by {@link BulkLoader}
      *
      * @return benchmark helper
      */
     public CorfuTableBenchmarkHelper fillTable() {
         check();
 
-        for (int i = 0; i < getTableSize(); i++) {
-            table.insert(i, valueGenerator.value());
+        BulkLoader.builder()
+                .numKeys(getTableSize())
+                .numWorkers(loadThreads)
+                .batchSize(loadBatchSize)
+                .build()
+                .load("table", (worker, fromKey, toKey) -> insertBatch(fromKey, toKey));
+
+        return this;
+    }
+
+    /**
+     * Sync the table: the writes of {@link #fillTable()} are applied to the table lazily, by the first accessor.
+     * Memory measurements of a loaded table must sync it first, otherwise the table is not materialized yet
+     *
+     * @return benchmark helper
+     */
+    public CorfuTableBenchmarkHelper syncTable() {
+        int size = table.size();
+        if (size < tableSize) {
+            throw new IllegalStateException("The table is not loaded: " + size + " of " + tableSize + " entries");
         }
 
         return this;
     }
 
+    /**
+     * Insert a batch of keys, in a transaction if the runtime is set. An aborted transaction is retried by BulkLoader
+     */
+    private void insertBatch(int fromKey, int toKey) {
+        if (runtime == null) {
+            for (int key = fromKey; key < toKey; key++) {
+                table.insert(key, valueGenerator.value());
+            }
+            return;
+        }
+
+        runtime.getObjectsView().TXBegin();
+        try {
+            for (int key = fromKey; key < toKey; key++) {
+                table.insert(key, valueGenerator.value());
+            }
+        } catch (RuntimeException e) {
+            runtime.getObjectsView().TXAbort();
+            throw e;
+        }
+        runtime.getObjectsView().TXEnd();
+    }
+
     public String generateValue() {
         check();
         return valueGenerator.value();
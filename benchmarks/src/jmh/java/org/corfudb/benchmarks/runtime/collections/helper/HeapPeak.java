@@ -0,0 +1,127 @@
+package org.corfudb.benchmarks.runtime.collections.helper;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * High-water mark of the used heap since {@link #start()}.
+ * <p>
+ * The total used heap is sampled every {@link #SAMPLE_PERIOD_MS} ms, the peaks between the samples are caught
+ * by the gc notifications: the heap used right before a collection. The peak usage of the memory pools
+ * is not used, the pools peak at different times, so the sum of their peaks overestimates the heap peak.
+ */
+@Slf4j
+public class HeapPeak implements AutoCloseable {
+    private static final long SAMPLE_PERIOD_MS = 10;
+
+    private final AtomicLong peak = new AtomicLong();
+
+    private final Set<String> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .map(MemoryPoolMXBean::getName)
+            .collect(Collectors.toSet());
+
+    private final NotificationListener gcListener = this::onGc;
+
+    private final List<NotificationEmitter> collectors = new ArrayList<>();
+
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "heap-peak-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private HeapPeak() {
+        //use start()
+    }
+
+    /**
+     * Start tracking the heap peak
+     *
+     * @return heap peak, must be closed
+     */
+    public static HeapPeak start() {
+        HeapPeak heapPeak = new HeapPeak();
+        heapPeak.sample();
+
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                NotificationEmitter emitter = (NotificationEmitter) collector;
+                emitter.addNotificationListener(heapPeak.gcListener, null, null);
+                heapPeak.collectors.add(emitter);
+            }
+        }
+
+        heapPeak.sampler.scheduleAtFixedRate(
+                heapPeak::sample, SAMPLE_PERIOD_MS, SAMPLE_PERIOD_MS, TimeUnit.MILLISECONDS
+        );
+        return heapPeak;
+    }
+
+    /**
+     * Used heap high-water mark
+     *
+     * @return bytes
+     */
+    public long getPeak() {
+        return peak.get();
+    }
+
+    /**
+     * Stop the sampling and unsubscribe from the gc notifications
+     */
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+
+        for (NotificationEmitter emitter : collectors) {
+            try {
+                emitter.removeNotificationListener(gcListener);
+            } catch (ListenerNotFoundException e) {
+                log.warn("Gc listener is not registered", e);
+            }
+        }
+        collectors.clear();
+        sample();
+    }
+
+    private void sample() {
+        update(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+    }
+
+    private void onGc(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo
+                .from((CompositeData) notification.getUserData());
+        long beforeGc = info.getGcInfo().getMemoryUsageBeforeGc().entrySet().stream()
+                .filter(pool -> heapPools.contains(pool.getKey()))
+                .mapToLong(pool -> pool.getValue().getUsed())
+                .sum();
+        update(beforeGc);
+    }
+
+    private void update(long usedHeap) {
+        peak.accumulateAndGet(usedHeap, Math::max);
+    }
+}
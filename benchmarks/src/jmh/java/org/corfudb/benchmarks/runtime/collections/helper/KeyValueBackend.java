@@ -0,0 +1,151 @@
+package org.corfudb.benchmarks.runtime.collections.helper;
+
+import lombok.NonNull;
+import org.corfudb.benchmarks.runtime.collections.experiment.mmap.MappedIntMap;
+import org.corfudb.runtime.collections.ICorfuTable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Common operations of the compared key/value backends: java maps (experiment backends) and corfu tables.
+ * Allows to run exactly the same workload against every backend.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public interface KeyValueBackend<K, V> extends AutoCloseable {
+
+    V get(K key);
+
+    void put(K key, V value);
+
+    void remove(K key);
+
+    /**
+     * Iterate over all the entries
+     *
+     * @param action entry consumer
+     */
+    void scan(Consumer<Map.Entry<K, V>> action);
+
+    @Override
+    void close();
+
+    /**
+     * Backend based on a java map
+     *
+     * @param map     map
+     * @param onClose releases resources of the map
+     * @param <K>     key type
+     * @param <V>     value type
+     * @return backend
+     */
+    static <K, V> KeyValueBackend<K, V> fromMap(@NonNull Map<K, V> map, @NonNull Runnable onClose) {
+        return new KeyValueBackend<K, V>() {
+            @Override
+            public V get(K key) {
+                return map.get(key);
+            }
+
+            @Override
+            public void put(K key, V value) {
+                map.put(key, value);
+            }
+
+            @Override
+            public void remove(K key) {
+                map.remove(key);
+            }
+
+            @Override
+            public void scan(Consumer<Map.Entry<K, V>> action) {
+                map.entrySet().forEach(action);
+            }
+
+            @Override
+            public void close() {
+                onClose.run();
+            }
+        };
+    }
+
+    /**
+     * Backend based on a corfu table
+     *
+     * @param table   corfu table
+     * @param onClose releases resources of the table
+     * @param <K>     key type
+     * @param <V>     value type
+     * @return backend
+     */
+    static <K, V> KeyValueBackend<K, V> fromTable(@NonNull ICorfuTable<K, V> table, @NonNull Runnable onClose) {
+        return new KeyValueBackend<K, V>() {
+            @Override
+            public V get(K key) {
+                return table.get(key);
+            }
+
+            @Override
+            public void put(K key, V value) {
+                table.insert(key, value);
+            }
+
+            @Override
+            public void remove(K key) {
+                table.delete(key);
+            }
+
+            @Override
+            public void scan(Consumer<Map.Entry<K, V>> action) {
+                table.entryStream().forEach(action);
+            }
+
+            @Override
+            public void close() {
+                table.close();
+                onClose.run();
+            }
+        };
+    }
+
+    /**
+     * Backend based on the off-heap memory-mapped map, keys are not boxed, values are utf-8 strings
+     *
+     * @param map memory-mapped map
+     * @return backend
+     */
+    static KeyValueBackend<Integer, String> fromMappedIntMap(@NonNull MappedIntMap map) {
+        return new KeyValueBackend<Integer, String>() {
+            @Override
+            public String get(Integer key) {
+                byte[] value = map.get((int) key);
+                return value == null ? null : new String(value, StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public void put(Integer key, String value) {
+                map.put((int) key, value.getBytes(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void remove(Integer key) {
+                map.remove((int) key);
+            }
+
+            @Override
+            public void scan(Consumer<Map.Entry<Integer, String>> action) {
+                map.entrySet().forEach(entry -> action.accept(new SimpleImmutableEntry<>(
+                        entry.getKey(), new String(entry.getValue(), StandardCharsets.UTF_8)
+                )));
+            }
+
+            @Override
+            public void close() {
+                map.close();
+            }
+        };
+    }
+}
@@ -0,0 +1,166 @@
+package org.corfudb.benchmarks.runtime.collections.helper;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory used by the process: a snapshot taken after a forced gc. The difference of two snapshots,
+ * taken before and after a table is loaded, is the memory footprint of the table.
+ * <ul>
+ *     <li>heap - used heap after a full gc, the retained size of the table</li>
+ *     <li>native - resident memory (linux /proc/self/statm) not committed to the heap:
+ *     RocksDb memtables and block cache, direct buffers, thread stacks</li>
+ *     <li>disk - size of the data directory</li>
+ *     <li>gc - number of collections and the total collection time</li>
+ * </ul>
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Slf4j
+public class MemoryFootprint {
+    /**
+     * Footprint report of the collection benchmark states
+     */
+    public static final Path REPORT = Paths.get("benchmarks", "build", "MemoryFootprintBenchmark.footprint.csv");
+
+    private static final Path STATM = Paths.get("/proc", "self", "statm");
+    private static final long PAGE_SIZE = 4096;
+    private static final int GC_CYCLES = 3;
+
+    private static final String CSV_HEADER = "table,dataSize,tableSize,heapBytesPerEntry,nativeBytesPerEntry,"
+            + "diskBytesPerEntry,gcCount,gcTimeMs\n";
+
+    private final long heapBytes;
+    private final long nativeBytes;
+    private final long diskBytes;
+    private final long gcCount;
+    private final long gcTimeMs;
+
+    /**
+     * Gc counters after the forced gc, so the forced collections of a baseline are not counted
+     */
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final long settledGcCount;
+
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final long settledGcTimeMs;
+
+    /**
+     * Take a snapshot of the memory usage
+     *
+     * @param dataPath data directory of the table, null for in-memory tables
+     * @return memory footprint
+     */
+    public static MemoryFootprint measure(Path dataPath) {
+        long[] gc = gcCounters();
+
+        for (int i = 0; i < GC_CYCLES; i++) {
+            System.gc();
+        }
+        long[] settledGc = gcCounters();
+
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        long nativeBytes = Math.max(0, residentBytes() - heap.getCommitted());
+        long diskBytes = dataPath != null && Files.isDirectory(dataPath)
+                ? FileUtils.sizeOfDirectory(dataPath.toFile())
+                : 0;
+
+        return new MemoryFootprint(heap.getUsed(), nativeBytes, diskBytes, gc[0], gc[1], settledGc[0], settledGc[1]);
+    }
+
+    /**
+     * Memory used since the baseline snapshot
+     *
+     * @param baseline snapshot taken before
+     * @return difference of the snapshots
+     */
+    public MemoryFootprint minus(MemoryFootprint baseline) {
+        long gcCountDiff = gcCount - baseline.settledGcCount;
+        long gcTimeDiff = gcTimeMs - baseline.settledGcTimeMs;
+        return new MemoryFootprint(
+                heapBytes - baseline.heapBytes,
+                nativeBytes - baseline.nativeBytes,
+                diskBytes - baseline.diskBytes,
+                gcCountDiff,
+                gcTimeDiff,
+                gcCountDiff,
+                gcTimeDiff
+        );
+    }
+
+    /**
+     * Append the footprint per entry to a csv report, one row per table configuration
+     *
+     * @param report    csv file
+     * @param table     table type
+     * @param dataSize  value size
+     * @param tableSize number of entries
+     */
+    public void report(Path report, String table, int dataSize, int tableSize) {
+        int entries = Math.max(1, tableSize);
+        String row = String.join(",",
+                table,
+                String.valueOf(dataSize),
+                String.valueOf(tableSize),
+                String.valueOf(heapBytes / entries),
+                String.valueOf(nativeBytes / entries),
+                String.valueOf(diskBytes / entries),
+                String.valueOf(gcCount),
+                String.valueOf(gcTimeMs)
+        ) + "\n";
+
+        log.info("Memory footprint. {}", CSV_HEADER + row);
+
+        try {
+            Files.createDirectories(report.getParent());
+            if (!Files.exists(report)) {
+                Files.write(report, CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+            }
+            Files.write(report, row.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new IllegalStateException("can't write memory footprint report: " + report, e);
+        }
+    }
+
+    /**
+     * Total number of collections and collection time of all the collectors
+     */
+    private static long[] gcCounters() {
+        long[] counters = new long[2];
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            counters[0] += Math.max(0, gc.getCollectionCount());
+            counters[1] += Math.max(0, gc.getCollectionTime());
+        }
+        return counters;
+    }
+
+    private static long residentBytes() {
+        if (!Files.isReadable(STATM)) {
+            return 0;
+        }
+
+        try {
+            String[] pages = new String(Files.readAllBytes(STATM), StandardCharsets.US_ASCII).trim().split(" ");
+            return Long.parseLong(pages[1]) * PAGE_SIZE;
+        } catch (IOException e) {
+            throw new IllegalStateException("can't read resident memory size", e);
+        }
+    }
+}
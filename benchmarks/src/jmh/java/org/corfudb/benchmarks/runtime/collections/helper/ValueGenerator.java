@@ -1,6 +1,7 @@
 package org.corfudb.benchmarks.runtime.collections.helper;
 
 import org.corfudb.benchmarks.util.DataGenerator;
+import org.corfudb.benchmarks.util.PayloadGenerator;
 
 public interface ValueGenerator {
     String value();
@@ -40,4 +41,23 @@ public interface ValueGenerator {
             return DataGenerator.generateDataString(valueSize);
         }
     }
+
+    /**
+     * Generates a new value of the payload model every time: random, text-like, repeated blocks or protobuf
+     */
+    class PayloadValueGenerator implements ValueGenerator {
+
+        private final PayloadGenerator payloadGenerator;
+        private final int valueSize;
+
+        public PayloadValueGenerator(PayloadGenerator payloadGenerator, int valueSize) {
+            this.payloadGenerator = payloadGenerator;
+            this.valueSize = valueSize;
+        }
+
+        @Override
+        public String value() {
+            return payloadGenerator.generateString(valueSize);
+        }
+    }
 }
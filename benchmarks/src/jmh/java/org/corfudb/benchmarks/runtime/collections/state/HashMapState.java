@@ -2,8 +2,13 @@ package org.corfudb.benchmarks.runtime.collections.state;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.corfudb.benchmarks.runtime.collections.helper.CorfuClusterHelper;
 import org.corfudb.benchmarks.runtime.collections.helper.CorfuTableBenchmarkHelper;
+import org.corfudb.benchmarks.runtime.collections.helper.MemoryFootprint;
+import org.corfudb.benchmarks.runtime.collections.helper.ValueGenerator;
+import org.corfudb.benchmarks.runtime.collections.helper.ValueGenerator.DynamicValueGenerator;
 import org.corfudb.benchmarks.runtime.collections.helper.ValueGenerator.StaticValueGenerator;
+import org.corfudb.benchmarks.util.KeyDistribution;
 import org.corfudb.benchmarks.util.SizeUnit;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.collections.ICorfuTable;
@@ -15,6 +20,7 @@ import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 
 
 @Slf4j
@@ -26,12 +32,19 @@ public abstract class HashMapState {
     @Getter
     CorfuTableBenchmarkHelper helper;
 
+    private final CorfuClusterHelper cluster = new CorfuClusterHelper();
+
     private final String tableName = "InMemoryTable";
 
-    void init(int dataSize, int tableSize) {
-        log.info("Initialization...");
+    void init(int dataSize, int tableSize, String keyDistribution) {
+        init(new StaticValueGenerator(dataSize), dataSize, tableSize, keyDistribution);
+    }
+
+    void init(ValueGenerator valueGenerator, int dataSize, int tableSize, String keyDistribution) {
+        log.info("Initialization. Key distribution: {}", keyDistribution);
+
+        corfuRuntime = cluster.deploy("corfu_in_memory_table_benchmark").getRuntime();
 
-        StaticValueGenerator valueGenerator = new StaticValueGenerator(dataSize);
         ICorfuTable<Integer, String> table = corfuRuntime.getObjectsView().build()
                 .setTypeToken(PersistentCorfuTable.<Integer, String>getTypeToken())
                 .setStreamName(tableName)
@@ -43,10 +56,17 @@ public abstract class HashMapState {
                 .table(table)
                 .dataSize(dataSize)
                 .tableSize(tableSize)
+                .keyDistribution(KeyDistribution.of(keyDistribution, tableSize))
+                .runtime(corfuRuntime)
                 .build()
                 .check();
     }
 
+    void stop() {
+        helper.getTable().close();
+        cluster.shutdown();
+    }
+
     @State(Scope.Benchmark)
     @Getter
     @Slf4j
@@ -60,11 +80,23 @@ public abstract class HashMapState {
         @Param({"10000"})
         protected int inMemTableSize;
 
+        /**
+         * {@link KeyDistribution} spec, like: zipfian:0.99, hotspot:0.8:0.2, latest, sequential
+         */
+        @Getter
+        @Param({"uniform"})
+        protected String keyDistribution;
+
         @Setup
         public void init() {
-            init(dataSize, inMemTableSize);
+            init(dataSize, inMemTableSize, keyDistribution);
             helper.fillTable();
         }
+
+        @TearDown
+        public void tearDown() {
+            stop();
+        }
     }
 
     @State(Scope.Benchmark)
@@ -78,9 +110,54 @@ public abstract class HashMapState {
         @Getter
         protected int tableSize = SizeUnit.HUNDRED_K.getValue();
 
+        /**
+         * {@link KeyDistribution} spec, like: zipfian:0.99, hotspot:0.8:0.2, latest, sequential
+         */
+        @Getter
+        @Param({"uniform"})
+        protected String keyDistribution;
+
         @Setup
         public void init() {
-            init(dataSize, tableSize);
+            init(dataSize, tableSize, keyDistribution);
+        }
+
+        @TearDown
+        public void tearDown() {
+            stop();
+        }
+    }
+
+    /**
+     * Measures the memory footprint of the table: an empty table is loaded with unique values
+     * and the memory used by the load is appended to {@link MemoryFootprint#REPORT}
+     */
+    @State(Scope.Benchmark)
+    @Getter
+    @Slf4j
+    public static class HashMapStateForFootprint extends HashMapState {
+
+        @Param({"64", "256", "1024"})
+        public int dataSize;
+
+        @Param({"10000", "100000", "1000000"})
+        protected int tableSize;
+
+        private MemoryFootprint footprint;
+
+        @Setup
+        public void init() {
+            init(new DynamicValueGenerator(dataSize), dataSize, tableSize, "uniform");
+
+            MemoryFootprint baseline = MemoryFootprint.measure(null);
+            helper.fillTable().syncTable();
+            footprint = MemoryFootprint.measure(null).minus(baseline);
+            footprint.report(MemoryFootprint.REPORT, "persistent-corfu-table", dataSize, tableSize);
+        }
+
+        @TearDown
+        public void tearDown() {
+            stop();
         }
     }
 }
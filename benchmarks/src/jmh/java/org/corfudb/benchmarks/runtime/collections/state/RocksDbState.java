@@ -5,8 +5,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.corfudb.benchmarks.runtime.collections.experiment.rocksdb.RocksDbMap;
+import org.corfudb.benchmarks.runtime.collections.experiment.rocksdb.RocksDbProfile;
+import org.corfudb.benchmarks.runtime.collections.experiment.rocksdb.RocksDbProfile.ProfileOptions;
+import org.corfudb.benchmarks.runtime.collections.helper.CorfuClusterHelper;
 import org.corfudb.benchmarks.runtime.collections.helper.CorfuTableBenchmarkHelper;
+import org.corfudb.benchmarks.runtime.collections.helper.MemoryFootprint;
+import org.corfudb.benchmarks.runtime.collections.helper.ValueGenerator;
+import org.corfudb.benchmarks.runtime.collections.helper.ValueGenerator.DynamicValueGenerator;
 import org.corfudb.benchmarks.runtime.collections.helper.ValueGenerator.StaticValueGenerator;
+import org.corfudb.benchmarks.util.KeyDistribution;
 import org.corfudb.benchmarks.util.SizeUnit;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.collections.DiskBackedCorfuTable;
@@ -19,6 +26,7 @@ import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.TearDown;
+import org.rocksdb.Options;
 import org.rocksdb.RocksDBException;
 
 import java.io.File;
@@ -31,43 +39,72 @@ import java.util.function.Supplier;
 public abstract class RocksDbState {
     private static final String TMP_DIR = System.getProperty("java.io.tmpdir");
 
+    /**
+     * RocksDb options provided by corfu runtime: {@link DiskBackedCorfuTable#defaultOptions}
+     */
+    static final String CORFU_DEFAULT_PROFILE = "corfu-default";
+
+    /**
+     * Options of the {@link RocksDbProfile} of the table, null for corfu-default
+     */
+    private ProfileOptions profileOptions;
+
     @Getter
     CorfuRuntime corfuRuntime;
 
     @Getter
     CorfuTableBenchmarkHelper helper;
 
+    private final CorfuClusterHelper cluster = new CorfuClusterHelper();
+
     private final String tableName = "DiskBackedTable";
 
-    private final Path dbPath = Paths.get(
+    final Path dbPath = Paths.get(
             FilenameUtils.getName(TMP_DIR), "corfu", "rt", "persistence", "rocks_db"
     );
 
-    RocksDbMap<Integer, String> getRocksDbMap() {
+    RocksDbMap<Integer, String> getRocksDbMap(String rocksDbProfile) {
         return RocksDbMap.<Integer, String>builder()
                 .dbPath(dbPath)
                 .keyType(Integer.class)
                 .valueType(String.class)
+                .options(RocksDbProfile.fromName(rocksDbProfile).options())
                 .build();
     }
 
+    private Options getOptions(String rocksDbProfile) {
+        if (CORFU_DEFAULT_PROFILE.equals(rocksDbProfile)) {
+            return DiskBackedCorfuTable.defaultOptions;
+        }
+
+        profileOptions = RocksDbProfile.fromName(rocksDbProfile).options();
+        return profileOptions.getOptions();
+    }
+
     private void cleanDbDir() throws IOException {
         File dbDir = dbPath.toFile();
         FileUtils.deleteDirectory(dbDir);
         FileUtils.forceMkdir(dbDir);
     }
 
-    void init(int dataSize, int tableSize) throws IOException, RocksDBException {
-        log.info("Initialization...");
+    void init(int dataSize, int tableSize, String rocksDbProfile, String keyDistribution)
+            throws IOException, RocksDBException {
+        init(new StaticValueGenerator(dataSize), dataSize, tableSize, rocksDbProfile, keyDistribution);
+    }
+
+    void init(ValueGenerator valueGenerator, int dataSize, int tableSize, String rocksDbProfile,
+              String keyDistribution) throws IOException, RocksDBException {
+        log.info("Initialization. RocksDb profile: {}, key distribution: {}", rocksDbProfile, keyDistribution);
 
         cleanDbDir();
 
+        corfuRuntime = cluster.deploy("corfu_disk_backed_table_benchmark").getRuntime();
+
         PersistenceOptions.PersistenceOptionsBuilder persistenceOptions = PersistenceOptions.builder()
                 .dataPath(dbPath);
-        StaticValueGenerator valueGenerator = new StaticValueGenerator(dataSize);
         ICorfuTable<Integer, String> table = corfuRuntime.getObjectsView().build()
                 .setTypeToken(PersistedCorfuTable.<Integer, String>getTypeToken())
-                .setArguments(persistenceOptions.build(), DiskBackedCorfuTable.defaultOptions, Serializers.PRIMITIVE)
+                .setArguments(persistenceOptions.build(), getOptions(rocksDbProfile), Serializers.PRIMITIVE)
                 .setStreamName(tableName)
                 .setSerializer(Serializers.PRIMITIVE)
                 .open();
@@ -77,12 +114,19 @@ public abstract class RocksDbState {
                 .table(table)
                 .dataSize(dataSize)
                 .tableSize(tableSize)
+                .keyDistribution(KeyDistribution.of(keyDistribution, tableSize))
+                .runtime(corfuRuntime)
                 .build()
                 .check();
     }
 
     void stop() throws RocksDBException, IOException {
         helper.getTable().close();
+        if (profileOptions != null) {
+            profileOptions.close();
+            profileOptions = null;
+        }
+        cluster.shutdown();
         cleanDbDir();
     }
 
@@ -99,9 +143,23 @@ public abstract class RocksDbState {
         @Param({"100000", "1000000"})
         protected int tableSize;
 
+        /**
+         * corfu-default or a {@link RocksDbProfile} name, like: block-lru-bloom
+         */
+        @Getter
+        @Param({CORFU_DEFAULT_PROFILE, "block-lru-bloom", "block-partitioned-index", "lz4", "zstd"})
+        protected String rocksDbProfile;
+
+        /**
+         * {@link KeyDistribution} spec, like: zipfian:0.99, hotspot:0.8:0.2, latest, sequential
+         */
+        @Getter
+        @Param({"uniform"})
+        protected String keyDistribution;
+
         @Setup
         public void init() throws IOException, RocksDBException {
-            init(dataSize, tableSize);
+            init(dataSize, tableSize, rocksDbProfile, keyDistribution);
             helper.fillTable();
         }
 
@@ -125,9 +183,63 @@ public abstract class RocksDbState {
         @Getter
         protected int tableSize = SizeUnit.HUNDRED_K.getValue();
 
+        /**
+         * corfu-default or a {@link RocksDbProfile} name, like: block-lru-bloom
+         */
+        @Getter
+        @Param({CORFU_DEFAULT_PROFILE, "block-lru-bloom", "block-partitioned-index", "lz4", "zstd"})
+        protected String rocksDbProfile;
+
+        /**
+         * {@link KeyDistribution} spec, like: zipfian:0.99, hotspot:0.8:0.2, latest, sequential
+         */
+        @Getter
+        @Param({"uniform"})
+        protected String keyDistribution;
+
         @Setup
         public void init() throws IOException, RocksDBException {
-            init(dataSize, tableSize);
+            init(dataSize, tableSize, rocksDbProfile, keyDistribution);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException, RocksDBException {
+            stop();
+        }
+    }
+
+    /**
+     * Measures the memory footprint of the table: an empty table is loaded with unique values
+     * and the memory used by the load (heap, RocksDb native memory and disk)
+     * is appended to {@link MemoryFootprint#REPORT}
+     */
+    @State(Scope.Benchmark)
+    @Getter
+    @Slf4j
+    public static class RocksDbStateForFootprint extends RocksDbState {
+
+        @Param({"64", "256", "1024"})
+        public int dataSize;
+
+        @Param({"10000", "100000", "1000000"})
+        protected int tableSize;
+
+        /**
+         * corfu-default or a {@link RocksDbProfile} name, like: block-lru-bloom
+         */
+        @Param({CORFU_DEFAULT_PROFILE, "block-lru-bloom", "block-partitioned-index", "lz4", "zstd"})
+        protected String rocksDbProfile;
+
+        private MemoryFootprint footprint;
+
+        @Setup
+        public void init() throws IOException, RocksDBException {
+            init(new DynamicValueGenerator(dataSize), dataSize, tableSize, rocksDbProfile, "uniform");
+
+            MemoryFootprint baseline = MemoryFootprint.measure(dbPath);
+            helper.fillTable().syncTable();
+            footprint = MemoryFootprint.measure(dbPath).minus(baseline);
+            footprint.report(MemoryFootprint.REPORT, "persisted-corfu-table-" + rocksDbProfile, dataSize, tableSize);
         }
 
         @TearDown
@@ -94,6 +94,57 @@ public class DataGeneratorBenchmark {
         blackhole.consume(value);
     }
 
+    /**
+     * Byte array generator performance for multiple threads
+     *
+     * @param blackhole jmh blackhole
+     * @param state     the benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 1)
+    @Measurement(iterations = 1, time = 5)
+    @Threads(value = 4)
+    @Fork(3)
+    public void multiThreadedBytesGenerator(Blackhole blackhole, DataGeneratorState state) {
+        blackhole.consume(DataGenerator.generateDataBytes(state.getDataSize()));
+    }
+
+    /**
+     * Zero-copy ByteBuffer generator performance for multiple threads
+     *
+     * @param blackhole jmh blackhole
+     * @param state     the benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 1)
+    @Measurement(iterations = 1, time = 5)
+    @Threads(value = 4)
+    @Fork(3)
+    public void multiThreadedBufferGenerator(Blackhole blackhole, DataGeneratorState state) {
+        blackhole.consume(DataGenerator.generateDataBuffer(state.getDataSize()));
+    }
+
+    /**
+     * Zero-copy protobuf ByteString generator performance for multiple threads
+     *
+     * @param blackhole jmh blackhole
+     * @param state     the benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 1)
+    @Measurement(iterations = 1, time = 5)
+    @Threads(value = 4)
+    @Fork(3)
+    public void multiThreadedByteStringGenerator(Blackhole blackhole, DataGeneratorState state) {
+        blackhole.consume(DataGenerator.generateDataByteString(state.getDataSize()));
+    }
+
     /**
      * Java random generator benchmark
      *
@@ -0,0 +1,143 @@
+package org.corfudb.benchmarks.util;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Payload generator benchmark: generation throughput of every payload model
+ * and the compressed size of the payloads (deflate), which shows the entropy of every model.
+ */
+@Slf4j
+public class PayloadGeneratorBenchmark {
+
+    /**
+     * Payload generator benchmark
+     *
+     * @param args args
+     * @throws RunnerException jmh runner exception
+     */
+    public static void main(String[] args) throws RunnerException {
+        String benchmarkName = PayloadGeneratorBenchmark.class.getSimpleName();
+
+        Path benchmarksReportFile = Paths.get("benchmarks", "build", benchmarkName + ".csv");
+        benchmarksReportFile.toFile().getParentFile().mkdirs();
+
+        Options opt = new OptionsBuilder()
+                .include(benchmarkName)
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.CSV)
+                .result(benchmarksReportFile.toString())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Getter
+    @State(Scope.Benchmark)
+    public static class PayloadState {
+        @Param({"random", "ascii", "text", "repeated-block", "protobuf"})
+        private String payloadType;
+
+        @Param({"1024", "65536", "524288"})
+        private int dataSize;
+
+        @Param({"4"})
+        private int compressionRatio;
+
+        private PayloadGenerator generator;
+
+        @Setup
+        public void init() {
+            generator = PayloadGenerator.of(PayloadType.fromName(payloadType), compressionRatio);
+        }
+    }
+
+    /**
+     * Number of payload bytes and the number of bytes after compression
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CompressionCounters {
+        public long rawBytes;
+        public long compressedBytes;
+
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final byte[] output = new byte[1024 * 1024];
+
+        void compress(byte[] payload) {
+            deflater.reset();
+            deflater.setInput(payload);
+            deflater.finish();
+
+            rawBytes += payload.length;
+            while (!deflater.finished()) {
+                compressedBytes += deflater.deflate(output);
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            log.info("Compression ratio: {}", rawBytes / (double) Math.max(1, compressedBytes));
+            deflater.end();
+        }
+    }
+
+    /**
+     * Payload generation throughput
+     *
+     * @param blackhole jmh blackhole
+     * @param state     the benchmark state
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 1)
+    @Measurement(iterations = 1, time = 5)
+    @Threads(value = 4)
+    @Fork(1)
+    public void generate(Blackhole blackhole, PayloadState state) {
+        blackhole.consume(state.getGenerator().generateByteString(state.getDataSize()));
+    }
+
+    /**
+     * Payload compression, the aux counters report raw and compressed bytes
+     *
+     * @param state    the benchmark state
+     * @param counters compression counters
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1, time = 1)
+    @Measurement(iterations = 1, time = 5)
+    @Threads(value = 1)
+    @Fork(1)
+    public void compress(PayloadState state, CompressionCounters counters) {
+        counters.compress(state.getGenerator().generate(state.getDataSize()));
+    }
+}
@@ -1,32 +1,56 @@
 package org.corfudb.benchmarks.runtime.collections.experiment.ehcache;
 
+import lombok.Getter;
 import lombok.NonNull;
 import org.corfudb.common.util.ClassUtils;
 import org.ehcache.Cache;
 import org.ehcache.PersistentCacheManager;
 import org.ehcache.config.ResourcePools;
 import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.CacheEventListenerConfigurationBuilder;
+import org.ehcache.event.CacheEvent;
+import org.ehcache.event.CacheEventListener;
+import org.ehcache.event.EventType;
 
+import java.util.AbstractCollection;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.AbstractSet;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A persistent map backed by EhCache
+ * <p>
+ * {@link #size()} counts the entries of the cache. With {@code exactSize} enabled the map keeps the number
+ * of entries instead: new keys are detected with putIfAbsent (an overwrite is putIfAbsent plus replace),
+ * removes are counted only if the key existed, and entries evicted or expired by the cache are counted
+ * by a synchronous event listener. Like RocksDbMap, the write benchmarks leave it disabled: a put is a single
+ * cache write.
+ * Iteration goes through the authoritative tier of the cache (disk if configured), it's weakly consistent.
  *
  * @param <K> key type
  * @param <V> value type
  */
 public class EhCacheMap<K, V> implements Map<K, V> {
 
+    private static final String CACHE_NAME = "threeTieredCache";
+
     private final PersistentCacheManager persistentCacheManager;
+    @Getter
     private final ResourcePools resourcePools;
     private final Cache<K, V> cache;
     private final AtomicInteger dataSetSize = new AtomicInteger();
+    @Getter
+    private final boolean exactSize;
 
     /**
-     * A persistent map backed by EhCache
+     * A persistent map backed by EhCache, the number of entries is not maintained
      *
      * @param persistentCacheManager ehCache manager
      * @param resourcePools resource pool
@@ -37,21 +61,118 @@ public class EhCacheMap<K, V> implements Map<K, V> {
                       @NonNull ResourcePools resourcePools,
                       @NonNull Class<K> keyType,
                       @NonNull Class<V> valueType) {
+        this(persistentCacheManager, resourcePools, keyType, valueType, false);
+    }
+
+    /**
+     * A persistent map backed by EhCache
+     *
+     * @param persistentCacheManager ehCache manager
+     * @param resourcePools resource pool
+     * @param keyType key type
+     * @param valueType value type
+     * @param exactSize maintain the number of entries on every write
+     */
+    public EhCacheMap(@NonNull PersistentCacheManager persistentCacheManager,
+                      @NonNull ResourcePools resourcePools,
+                      @NonNull Class<K> keyType,
+                      @NonNull Class<V> valueType,
+                      boolean exactSize) {
         this.persistentCacheManager = persistentCacheManager;
         this.resourcePools = resourcePools;
+        this.exactSize = exactSize;
+
         CacheConfigurationBuilder<K, V> configBuilder = CacheConfigurationBuilder
                 .newCacheConfigurationBuilder(keyType, valueType, resourcePools);
-        this.cache = persistentCacheManager.createCache("threeTieredCache", configBuilder);
+        if (exactSize) {
+            CacheEventListener<K, V> evictionListener = this::onEviction;
+            configBuilder = configBuilder.withService(CacheEventListenerConfigurationBuilder
+                    .newEventListenerConfiguration(evictionListener, EventType.EVICTED, EventType.EXPIRED)
+                    .synchronous()
+                    .unordered()
+            );
+        }
+        this.cache = persistentCacheManager.createCache(CACHE_NAME, configBuilder);
+
+        if (exactSize) {
+            reconcileSize();
+        }
+    }
+
+    /**
+     * Creates a map with resource pools of the profile
+     *
+     * @param persistentCacheManager ehCache manager
+     * @param profile resource pools profile
+     * @param maxEntries expected number of entries
+     * @param keyType key type
+     * @param valueType value type
+     * @param <K> key type
+     * @param <V> value type
+     * @return ehCache map
+     */
+    public static <K, V> EhCacheMap<K, V> of(PersistentCacheManager persistentCacheManager,
+                                             EhCacheProfile profile, int maxEntries,
+                                             Class<K> keyType, Class<V> valueType) {
+        return of(persistentCacheManager, profile, maxEntries, keyType, valueType, false);
+    }
+
+    /**
+     * Creates a map with resource pools of the profile
+     *
+     * @param persistentCacheManager ehCache manager
+     * @param profile resource pools profile
+     * @param maxEntries expected number of entries
+     * @param keyType key type
+     * @param valueType value type
+     * @param exactSize maintain the number of entries on every write
+     * @param <K> key type
+     * @param <V> value type
+     * @return ehCache map
+     */
+    public static <K, V> EhCacheMap<K, V> of(PersistentCacheManager persistentCacheManager,
+                                             EhCacheProfile profile, int maxEntries,
+                                             Class<K> keyType, Class<V> valueType, boolean exactSize) {
+        return new EhCacheMap<>(
+                persistentCacheManager, profile.resourcePools(maxEntries), keyType, valueType, exactSize
+        );
+    }
+
+    private void onEviction(CacheEvent<? extends K, ? extends V> event) {
+        dataSetSize.decrementAndGet();
+    }
+
+    /**
+     * Recount the entries of the cache, a persistent disk tier can keep entries of a previous run
+     *
+     * @return difference between the actual and the counted number of entries
+     */
+    public int reconcileSize() {
+        int size = countEntries();
+        return size - dataSetSize.getAndSet(size);
+    }
+
+    private int countEntries() {
+        int size = 0;
+        for (Cache.Entry<K, V> ignored : cache) {
+            size++;
+        }
+        return size;
     }
 
+    /**
+     * The entry counter if exactSize is enabled, otherwise the entries of the cache are counted
+     *
+     * @return number of entries
+     */
     @Override
     public int size() {
-        return dataSetSize.get();
+        return exactSize ? dataSetSize.get() : countEntries();
     }
 
     @Override
     public boolean isEmpty() {
-        return dataSetSize.get() == 0;
+        return exactSize ? dataSetSize.get() == 0 : !cache.iterator().hasNext();
     }
 
     @Override
@@ -61,7 +182,7 @@ public class EhCacheMap<K, V> implements Map<K, V> {
 
     @Override
     public boolean containsValue(@NonNull Object value) {
-        throw new UnsupportedOperationException();
+        return values().contains(value);
     }
 
     @Override
@@ -69,46 +190,156 @@ public class EhCacheMap<K, V> implements Map<K, V> {
         return cache.get(ClassUtils.cast(key));
     }
 
+    /**
+     * Put the value. With exactSize a new key increments the size, otherwise it's a single cache write
+     * and the previous value is not read
+     *
+     * @param key key
+     * @param value value
+     * @return previous value or null, always null if exactSize is disabled
+     */
     @Override
     public V put(@NonNull K key, @NonNull V value) {
-        cache.put(key, value);
-        dataSetSize.incrementAndGet();
-        return value;
+        if (!exactSize) {
+            cache.put(key, value);
+            return null;
+        }
+
+        while (true) {
+            V previous = cache.putIfAbsent(key, value);
+            if (previous == null) {
+                dataSetSize.incrementAndGet();
+                return null;
+            }
+
+            if (cache.replace(key, previous, value)) {
+                return previous;
+            }
+            //the entry has been changed or removed concurrently, retry
+        }
     }
 
+    /**
+     * Remove the key, with exactSize the size is decremented only if the key existed
+     *
+     * @param key key
+     * @return removed value or null
+     */
     @Override
     public V remove(@NonNull Object key) {
-        V value = cache.get(ClassUtils.cast(key));
-        cache.remove(ClassUtils.cast(key));
-        dataSetSize.decrementAndGet();
-        return value;
+        K cacheKey = ClassUtils.cast(key);
+        while (true) {
+            V value = cache.get(cacheKey);
+            if (value == null) {
+                return null;
+            }
+
+            if (cache.remove(cacheKey, value)) {
+                if (exactSize) {
+                    dataSetSize.decrementAndGet();
+                }
+                return value;
+            }
+            //the entry has been changed or removed concurrently, retry
+        }
     }
 
+    /**
+     * With exactSize the entries are put one by one, cache putAll doesn't tell which keys are new
+     *
+     * @param map entries
+     */
     @Override
     public void putAll(@NonNull Map<? extends K, ? extends V> map) {
-        dataSetSize.addAndGet(map.size());
-        cache.putAll(map);
+        if (!exactSize) {
+            cache.putAll(map);
+            return;
+        }
+
+        map.forEach(this::put);
     }
 
     @Override
     public void clear() {
-        dataSetSize.set(0);
         cache.clear();
+        dataSetSize.set(0);
+    }
+
+    /**
+     * Remove the cache from the cache manager, the cache manager is managed by the caller
+     */
+    public void close() {
+        persistentCacheManager.removeCache(CACHE_NAME);
     }
 
     @Override
     public Set<K> keySet() {
-        throw new UnsupportedOperationException();
+        return new AbstractSet<K>() {
+            @Override
+            public Iterator<K> iterator() {
+                return entryStream().map(Entry::getKey).iterator();
+            }
+
+            @Override
+            public boolean contains(Object key) {
+                return containsKey(key);
+            }
+
+            @Override
+            public int size() {
+                return EhCacheMap.this.size();
+            }
+        };
     }
 
     @Override
     public Collection<V> values() {
-        throw new UnsupportedOperationException();
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return entryStream().map(Entry::getValue).iterator();
+            }
+
+            @Override
+            public int size() {
+                return EhCacheMap.this.size();
+            }
+        };
     }
 
     @Override
     public Set<Entry<K, V>> entrySet() {
-        throw new UnsupportedOperationException();
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return entryStream().iterator();
+            }
+
+            @Override
+            public boolean contains(Object obj) {
+                if (!(obj instanceof Entry)) {
+                    return false;
+                }
+
+                Entry<?, ?> entry = (Entry<?, ?>) obj;
+                return Objects.equals(get(entry.getKey()), entry.getValue());
+            }
+
+            @Override
+            public int size() {
+                return EhCacheMap.this.size();
+            }
+        };
     }
 
+    /**
+     * Lazy stream of all the entries of the cache
+     *
+     * @return entries
+     */
+    public Stream<Entry<K, V>> entryStream() {
+        return StreamSupport
+                .stream(cache.spliterator(), false)
+                .<Entry<K, V>>map(entry -> new SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+    }
 }
@@ -0,0 +1,96 @@
+package org.corfudb.benchmarks.runtime.collections.experiment.ehcache;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.ehcache.PersistentCacheManager;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.builders.CacheManagerBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Named EhCache resource pool (storage tiers) profiles of {@link EhCacheMap}.
+ * The heap tier is sized in entries, a profile gets the expected number of entries of the map.
+ * Entries that don't fit into the heap tier are kept by the lower tiers (off-heap, disk).
+ */
+public enum EhCacheProfile {
+    /**
+     * All the entries are kept on heap
+     */
+    HEAP("heap", maxEntries -> ResourcePoolsBuilder.newResourcePoolsBuilder()
+            .heap(maxEntries, EntryUnit.ENTRIES)
+            .build()
+    ),
+
+    /**
+     * 10% of the entries on heap, the rest in off-heap memory
+     */
+    HEAP_OFFHEAP("heap-offheap", maxEntries -> ResourcePoolsBuilder.newResourcePoolsBuilder()
+            .heap(Math.max(1, maxEntries / 10), EntryUnit.ENTRIES)
+            .offheap(EhCacheProfile.OFFHEAP_SIZE_MB, MemoryUnit.MB)
+            .build()
+    ),
+
+    /**
+     * 1% of the entries on heap, a small off-heap tier, all the entries are persisted on disk
+     */
+    HEAP_OFFHEAP_DISK("heap-offheap-disk", maxEntries -> ResourcePoolsBuilder.newResourcePoolsBuilder()
+            .heap(Math.max(1, maxEntries / 100), EntryUnit.ENTRIES)
+            .offheap(EhCacheProfile.OFFHEAP_SIZE_MB / 16, MemoryUnit.MB)
+            .disk(EhCacheProfile.DISK_SIZE_GB, MemoryUnit.GB, true)
+            .build()
+    );
+
+    private static final long OFFHEAP_SIZE_MB = 2048;
+    private static final long DISK_SIZE_GB = 16;
+
+    @Getter
+    private final String profileName;
+
+    private final IntFunction<ResourcePools> resourcePoolsFactory;
+
+    EhCacheProfile(String profileName, IntFunction<ResourcePools> resourcePoolsFactory) {
+        this.profileName = profileName;
+        this.resourcePoolsFactory = resourcePoolsFactory;
+    }
+
+    /**
+     * Creates resource pools of the profile
+     *
+     * @param maxEntries expected number of entries in the map
+     * @return resource pools
+     */
+    public ResourcePools resourcePools(int maxEntries) {
+        return resourcePoolsFactory.apply(maxEntries);
+    }
+
+    /**
+     * Creates and initializes a cache manager, the storage directory is used by the disk tier
+     *
+     * @param storagePath storage directory
+     * @return persistent cache manager
+     */
+    public static PersistentCacheManager cacheManager(@NonNull Path storagePath) {
+        return CacheManagerBuilder.newCacheManagerBuilder()
+                .with(CacheManagerBuilder.persistence(storagePath.toFile()))
+                .build(true);
+    }
+
+    /**
+     * Find a profile by name
+     *
+     * @param profileName profile name, like: heap-offheap
+     * @return ehCache profile
+     */
+    public static EhCacheProfile fromName(String profileName) {
+        return Arrays.stream(values())
+                .filter(profile -> profile.profileName.equals(profileName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown EhCache profile: " + profileName));
+    }
+}
@@ -0,0 +1,807 @@
+package org.corfudb.benchmarks.runtime.collections.experiment.mmap;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+/**
+ * An off-heap map of primitive int keys to byte array values, stored in two memory-mapped files.
+ * <p>
+ * The value log ({@code values}) is append-only. Every put appends a record: crc, length, key and the value,
+ * every remove appends a tombstone record (length = -1). The crc covers length, key and value,
+ * so records don't depend on their position in the log and can be moved by compaction.
+ * <p>
+ * The index ({@code index}) is an open-addressing hash table with linear probing.
+ * A slot keeps the key and the offset of its latest record in the value log: 0 - empty slot, -1 - removed key.
+ * Lookups don't box the keys and don't allocate anything but the returned value.
+ * <p>
+ * Overwritten and removed records are garbage, once the garbage takes {@code compactionRatio} of the log,
+ * live records are copied into a new log which replaces the old one.
+ * <p>
+ * Crash safety: the index is marked clean only by {@link #close()}. If the index is not clean on open
+ * (crash, kill -9), it's rebuilt by replaying the value log up to the first record with a wrong crc.
+ * Entries written after the last {@link #flush()} can be lost by an OS crash, the map stays consistent.
+ * <p>
+ * Reads take a shared lock, writes take an exclusive lock.
+ */
+@Slf4j
+public class MappedIntMap extends AbstractMap<Integer, byte[]> implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    public static final long DEFAULT_LOG_SIZE = 64L * 1024 * 1024;
+    public static final double DEFAULT_COMPACTION_RATIO = 0.5;
+
+    private static final int MAGIC = 0x4D49_4D31;
+    private static final int VERSION = 1;
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED;
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED;
+
+    /**
+     * Index header: magic, version, capacity, clean flag, size, used slots, log end, garbage bytes
+     */
+    private static final long INDEX_CAPACITY = 8;
+    private static final long INDEX_CLEAN = 12;
+    private static final long INDEX_SIZE = 16;
+    private static final long INDEX_USED_SLOTS = 20;
+    private static final long INDEX_LOG_END = 24;
+    private static final long INDEX_GARBAGE = 32;
+    private static final long INDEX_HEADER_SIZE = 64;
+
+    /**
+     * Index slot: record offset (long), key (int), padding
+     */
+    private static final long SLOT_SIZE = 16;
+    private static final long SLOT_KEY = 8;
+    private static final long EMPTY = 0;
+    private static final long REMOVED = -1;
+
+    private static final double MAX_LOAD_FACTOR = 0.5;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Value log header: magic, version, reserved
+     */
+    private static final long LOG_HEADER_SIZE = 16;
+
+    /**
+     * Record header: crc, length, key
+     */
+    private static final long RECORD_LENGTH = 4;
+    private static final long RECORD_KEY = 8;
+    private static final int RECORD_HEADER_SIZE = 12;
+    private static final int TOMBSTONE_LENGTH = -1;
+    private static final int INVALID_RECORD = Integer.MIN_VALUE;
+
+    /**
+     * Compaction doesn't start for small logs
+     */
+    private static final long MIN_COMPACTION_SIZE = 16L * 1024 * 1024;
+
+    private static final String INDEX_FILE = "index";
+    private static final String LOG_FILE = "values";
+    private static final String INDEX_RESIZE_FILE = "index.resize";
+    private static final String LOG_COMPACTION_FILE = "values.compaction";
+
+    private static final ThreadLocal<CRC32C> CRC = ThreadLocal.withInitial(CRC32C::new);
+
+    private final Path dataPath;
+
+    private final int initialCapacity;
+
+    private final long initialLogSize;
+
+    private final double compactionRatio;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Mapping index;
+    private int capacity;
+    private int mask;
+
+    private Mapping valueLog;
+
+    private volatile int size;
+    private int usedSlots;
+    private long logEnd;
+    private long garbageBytes;
+
+    @Getter
+    private int numCompactions;
+
+    /**
+     * Memory-mapped map, see {@link #open()}
+     *
+     * @param dataPath        directory of the index and the value log
+     * @param initialCapacity initial number of index slots, {@link #DEFAULT_CAPACITY} if not set
+     * @param initialLogSize  initial size of the value log, {@link #DEFAULT_LOG_SIZE} if not set
+     * @param compactionRatio garbage ratio of the log that triggers compaction,
+     *                        {@link #DEFAULT_COMPACTION_RATIO} if not set
+     */
+    @Builder
+    public MappedIntMap(@NonNull Path dataPath, int initialCapacity, long initialLogSize, double compactionRatio) {
+        this.dataPath = dataPath;
+        this.initialCapacity = initialCapacity > 0 ? capacityFor(initialCapacity) : DEFAULT_CAPACITY;
+        this.initialLogSize = initialLogSize > 0 ? initialLogSize : DEFAULT_LOG_SIZE;
+        this.compactionRatio = compactionRatio > 0 ? compactionRatio : DEFAULT_COMPACTION_RATIO;
+    }
+
+    /**
+     * Open the map files or create new ones. The index is rebuilt from the value log
+     * if the map has not been closed properly.
+     *
+     * @return the map
+     * @throws IOException io exception
+     */
+    public MappedIntMap open() throws IOException {
+        Files.createDirectories(dataPath);
+        Files.deleteIfExists(dataPath.resolve(INDEX_RESIZE_FILE));
+        Files.deleteIfExists(dataPath.resolve(LOG_COMPACTION_FILE));
+
+        Path logPath = dataPath.resolve(LOG_FILE);
+        boolean logExists = Files.exists(logPath);
+        valueLog = Mapping.map(logPath, logExists ? Math.max(Files.size(logPath), initialLogSize) : initialLogSize);
+        if (!logExists) {
+            valueLog.segment.set(INT, 0, MAGIC);
+            valueLog.segment.set(INT, 4, VERSION);
+        } else if (valueLog.segment.get(INT, 0) != MAGIC) {
+            throw new IllegalStateException("Not a value log: " + logPath);
+        }
+
+        boolean clean = openIndex() && logExists;
+        if (clean) {
+            size = index.segment.get(INT, INDEX_SIZE);
+            usedSlots = index.segment.get(INT, INDEX_USED_SLOTS);
+            logEnd = index.segment.get(LONG, INDEX_LOG_END);
+            garbageBytes = index.segment.get(LONG, INDEX_GARBAGE);
+        } else {
+            recover();
+        }
+
+        index.segment.set(INT, INDEX_CLEAN, 0);
+        writeHeader();
+        index.segment.force();
+
+        log.info("Opened: {}, entries: {}, log size: {}, garbage: {}", dataPath, size, logEnd, garbageBytes);
+        return this;
+    }
+
+    /**
+     * Map an existing index or create a new one
+     *
+     * @return true if the existing index has been closed properly
+     */
+    private boolean openIndex() throws IOException {
+        Path indexPath = dataPath.resolve(INDEX_FILE);
+        if (Files.exists(indexPath) && Files.size(indexPath) >= INDEX_HEADER_SIZE) {
+            index = Mapping.map(indexPath, Files.size(indexPath));
+            MemorySegment header = index.segment;
+            int indexCapacity = header.get(INT, INDEX_CAPACITY);
+
+            boolean valid = header.get(INT, 0) == MAGIC
+                    && header.get(INT, 4) == VERSION
+                    && indexCapacity > 0
+                    && header.byteSize() == indexSize(indexCapacity);
+            if (valid) {
+                setCapacity(indexCapacity);
+                return header.get(INT, INDEX_CLEAN) == 1;
+            }
+
+            log.warn("Invalid index, rebuild: {}", indexPath);
+            index.close();
+            Files.delete(indexPath);
+        }
+
+        index = createIndex(indexPath, initialCapacity);
+        setCapacity(initialCapacity);
+        return false;
+    }
+
+    /**
+     * Rebuild the index by replaying the value log. The log ends at the first record with a wrong crc.
+     */
+    private void recover() {
+        log.info("Rebuild the index from the value log: {}", dataPath);
+
+        index.segment.asSlice(INDEX_HEADER_SIZE).fill((byte) 0);
+        size = 0;
+        usedSlots = 0;
+        garbageBytes = 0;
+
+        long offset = LOG_HEADER_SIZE;
+        int length;
+        while ((length = validRecordLength(offset)) != INVALID_RECORD) {
+            int key = valueLog.segment.get(INT, offset + RECORD_KEY);
+            long previous = length == TOMBSTONE_LENGTH ? indexRemove(key) : indexPut(key, offset);
+            addGarbage(previous);
+            if (length == TOMBSTONE_LENGTH) {
+                garbageBytes += RECORD_HEADER_SIZE;
+            }
+
+            offset += recordSize(length);
+        }
+
+        logEnd = offset;
+    }
+
+    /**
+     * Length of the value of a valid record
+     *
+     * @param offset record offset
+     * @return value length, {@link #TOMBSTONE_LENGTH} or {@link #INVALID_RECORD}
+     */
+    private int validRecordLength(long offset) {
+        MemorySegment segment = valueLog.segment;
+        if (offset + RECORD_HEADER_SIZE > segment.byteSize()) {
+            return INVALID_RECORD;
+        }
+
+        int length = segment.get(INT, offset + RECORD_LENGTH);
+        if (length < TOMBSTONE_LENGTH || offset + recordSize(length) > segment.byteSize()) {
+            return INVALID_RECORD;
+        }
+
+        return segment.get(INT, offset) == crc(segment, offset, length) ? length : INVALID_RECORD;
+    }
+
+    /**
+     * Get the value without boxing the key
+     *
+     * @param key key
+     * @return value or null
+     */
+    public byte[] get(int key) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            long offset = indexGet(key);
+            if (offset == EMPTY) {
+                return null;
+            }
+
+            return readValue(offset);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Check the key without boxing
+     *
+     * @param key key
+     * @return true if the key exists
+     */
+    public boolean containsKey(int key) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return indexGet(key) != EMPTY;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Append the value to the log and point the key to it
+     *
+     * @param key   key
+     * @param value value
+     * @return true if the key is new
+     */
+    public boolean put(int key, @NonNull byte[] value) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            long offset = append(key, value, value.length);
+            long previous = indexPut(key, offset);
+            addGarbage(previous);
+            maybeCompact();
+            return previous == EMPTY;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Remove the key, a tombstone is appended to the log so the key is not restored by recovery
+     *
+     * @param key key
+     * @return true if the key existed
+     */
+    public boolean remove(int key) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            if (indexGet(key) == EMPTY) {
+                return false;
+            }
+
+            append(key, null, TOMBSTONE_LENGTH);
+            addGarbage(indexRemove(key));
+            garbageBytes += RECORD_HEADER_SIZE;
+            maybeCompact();
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public byte[] get(Object key) {
+        return key instanceof Integer ? get((int) (Integer) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsKey((int) (Integer) key);
+    }
+
+    @Override
+    public byte[] put(@NonNull Integer key, @NonNull byte[] value) {
+        byte[] previous = get((int) key);
+        put((int) key, value);
+        return previous;
+    }
+
+    @Override
+    public byte[] remove(Object key) {
+        if (!(key instanceof Integer)) {
+            return null;
+        }
+
+        byte[] previous = get((int) (Integer) key);
+        remove((int) (Integer) key);
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Size of the value log including garbage
+     *
+     * @return number of bytes
+     */
+    public long logSize() {
+        return logEnd;
+    }
+
+    /**
+     * Overwritten and removed records
+     *
+     * @return number of bytes
+     */
+    public long garbageBytes() {
+        return garbageBytes;
+    }
+
+    /**
+     * Weakly consistent view: entries put or removed during iteration may be seen or not,
+     * entries can be missed or seen twice if the index is resized during iteration.
+     *
+     * @return entries
+     */
+    @Override
+    public Set<Entry<Integer, byte[]>> entrySet() {
+        return new AbstractSet<Entry<Integer, byte[]>>() {
+            @Override
+            public Iterator<Entry<Integer, byte[]>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return MappedIntMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Copy live records into a new value log and replace the old log
+     */
+    public void compact() {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            long liveBytes = logEnd - garbageBytes;
+            log.info("Compaction: {}, log size: {}, live bytes: {}", dataPath, logEnd, liveBytes);
+
+            Path compactionPath = dataPath.resolve(LOG_COMPACTION_FILE);
+            Mapping compacted = Mapping.map(compactionPath, Math.max(liveBytes, initialLogSize));
+            compacted.segment.copyFrom(valueLog.segment.asSlice(0, LOG_HEADER_SIZE));
+
+            long offset = LOG_HEADER_SIZE;
+            for (int slot = 0; slot < capacity; slot++) {
+                long slotAddress = slotAddress(slot);
+                long recordOffset = index.segment.get(LONG, slotAddress);
+                if (recordOffset == EMPTY || recordOffset == REMOVED) {
+                    continue;
+                }
+
+                long recordSize = recordSize(valueLog.segment.get(INT, recordOffset + RECORD_LENGTH));
+                MemorySegment.copy(valueLog.segment, recordOffset, compacted.segment, offset, recordSize);
+                index.segment.set(LONG, slotAddress, offset);
+                offset += recordSize;
+            }
+
+            // the index is not clean: if the process crashes before the log is replaced,
+            // the index is rebuilt from the old log, otherwise from the compacted one
+            compacted.segment.force();
+            valueLog.close();
+            Files.move(compactionPath, dataPath.resolve(LOG_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            valueLog = compacted;
+            logEnd = offset;
+            garbageBytes = 0;
+            numCompactions++;
+            writeHeader();
+        } catch (IOException e) {
+            throw new IllegalStateException("can't compact the value log", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Write the mapped memory of the value log and the index to disk
+     */
+    public void flush() {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            valueLog.segment.force();
+            writeHeader();
+            index.segment.force();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Flush and mark the index clean, the next open doesn't need recovery
+     */
+    @Override
+    public void close() {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            valueLog.segment.force();
+            writeHeader();
+            index.segment.set(INT, INDEX_CLEAN, 1);
+            index.segment.force();
+
+            index.close();
+            valueLog.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void maybeCompact() {
+        if (logEnd >= MIN_COMPACTION_SIZE && garbageBytes > logEnd * compactionRatio) {
+            compact();
+        }
+    }
+
+    private byte[] readValue(long offset) {
+        MemorySegment segment = valueLog.segment;
+        int length = segment.get(INT, offset + RECORD_LENGTH);
+        byte[] value = new byte[length];
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, offset + RECORD_HEADER_SIZE, value, 0, length);
+        return value;
+    }
+
+    private long append(int key, byte[] value, int length) {
+        long recordSize = recordSize(length);
+        ensureLogCapacity(logEnd + recordSize);
+
+        long offset = logEnd;
+        MemorySegment segment = valueLog.segment;
+        segment.set(INT, offset + RECORD_LENGTH, length);
+        segment.set(INT, offset + RECORD_KEY, key);
+        if (length > 0) {
+            MemorySegment.copy(value, 0, segment, ValueLayout.JAVA_BYTE, offset + RECORD_HEADER_SIZE, length);
+        }
+        segment.set(INT, offset, crc(segment, offset, length));
+
+        logEnd += recordSize;
+        return offset;
+    }
+
+    private void ensureLogCapacity(long requiredSize) {
+        long mappedSize = valueLog.segment.byteSize();
+        if (requiredSize <= mappedSize) {
+            return;
+        }
+
+        long newSize = Math.max(mappedSize * 2, requiredSize);
+        try {
+            valueLog.close();
+            valueLog = Mapping.map(dataPath.resolve(LOG_FILE), newSize);
+        } catch (IOException e) {
+            throw new IllegalStateException("can't grow the value log", e);
+        }
+    }
+
+    private void addGarbage(long previousOffset) {
+        if (previousOffset != EMPTY) {
+            garbageBytes += recordSize(valueLog.segment.get(INT, previousOffset + RECORD_LENGTH));
+        }
+    }
+
+    /**
+     * Offset of the key record
+     *
+     * @return record offset or {@link #EMPTY}
+     */
+    private long indexGet(int key) {
+        long slotAddress = findSlot(key);
+        return slotAddress < 0 ? EMPTY : index.segment.get(LONG, slotAddress);
+    }
+
+    private long findSlot(int key) {
+        MemorySegment segment = index.segment;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            long slotAddress = slotAddress(slot);
+            long offset = segment.get(LONG, slotAddress);
+            if (offset == EMPTY) {
+                return -1;
+            }
+
+            if (offset != REMOVED && segment.get(INT, slotAddress + SLOT_KEY) == key) {
+                return slotAddress;
+            }
+        }
+    }
+
+    /**
+     * Point the key to the record
+     *
+     * @return offset of the previous record of the key or {@link #EMPTY}
+     */
+    private long indexPut(int key, long recordOffset) {
+        MemorySegment segment = index.segment;
+        long removedSlot = -1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            long slotAddress = slotAddress(slot);
+            long offset = segment.get(LONG, slotAddress);
+
+            if (offset == EMPTY) {
+                long target = removedSlot >= 0 ? removedSlot : slotAddress;
+                if (target == slotAddress) {
+                    usedSlots++;
+                }
+
+                segment.set(LONG, target, recordOffset);
+                segment.set(INT, target + SLOT_KEY, key);
+                size++;
+
+                if (usedSlots > capacity * MAX_LOAD_FACTOR) {
+                    resizeIndex();
+                }
+                return EMPTY;
+            }
+
+            if (offset == REMOVED) {
+                if (removedSlot < 0) {
+                    removedSlot = slotAddress;
+                }
+            } else if (segment.get(INT, slotAddress + SLOT_KEY) == key) {
+                segment.set(LONG, slotAddress, recordOffset);
+                return offset;
+            }
+        }
+    }
+
+    /**
+     * Mark the key removed
+     *
+     * @return offset of the removed record or {@link #EMPTY}
+     */
+    private long indexRemove(int key) {
+        long slotAddress = findSlot(key);
+        if (slotAddress < 0) {
+            return EMPTY;
+        }
+
+        long offset = index.segment.get(LONG, slotAddress);
+        index.segment.set(LONG, slotAddress, REMOVED);
+        size--;
+        return offset;
+    }
+
+    /**
+     * Rehash the index into a new file: doubles the capacity or only drops the removed slots
+     */
+    private void resizeIndex() {
+        int newCapacity = size * 4L > capacity ? capacity * 2 : capacity;
+        if (newCapacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Index is full: " + dataPath);
+        }
+
+        try {
+            Path resizePath = dataPath.resolve(INDEX_RESIZE_FILE);
+            Mapping resized = createIndex(resizePath, newCapacity);
+            int newMask = newCapacity - 1;
+
+            for (int slot = 0; slot < capacity; slot++) {
+                long offset = index.segment.get(LONG, slotAddress(slot));
+                if (offset == EMPTY || offset == REMOVED) {
+                    continue;
+                }
+
+                int key = index.segment.get(INT, slotAddress(slot) + SLOT_KEY);
+                int newSlot = hash(key) & newMask;
+                while (resized.segment.get(LONG, slotAddress(newSlot)) != EMPTY) {
+                    newSlot = (newSlot + 1) & newMask;
+                }
+                resized.segment.set(LONG, slotAddress(newSlot), offset);
+                resized.segment.set(INT, slotAddress(newSlot) + SLOT_KEY, key);
+            }
+
+            index.close();
+            Files.move(resizePath, dataPath.resolve(INDEX_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            index = resized;
+            setCapacity(newCapacity);
+            usedSlots = size;
+            writeHeader();
+        } catch (IOException e) {
+            throw new IllegalStateException("can't resize the index", e);
+        }
+    }
+
+    private Mapping createIndex(Path indexPath, int indexCapacity) throws IOException {
+        Mapping mapping = Mapping.map(indexPath, indexSize(indexCapacity));
+        mapping.segment.set(INT, 0, MAGIC);
+        mapping.segment.set(INT, 4, VERSION);
+        mapping.segment.set(INT, INDEX_CAPACITY, indexCapacity);
+        return mapping;
+    }
+
+    private void writeHeader() {
+        MemorySegment header = index.segment;
+        header.set(INT, INDEX_SIZE, size);
+        header.set(INT, INDEX_USED_SLOTS, usedSlots);
+        header.set(LONG, INDEX_LOG_END, logEnd);
+        header.set(LONG, INDEX_GARBAGE, garbageBytes);
+    }
+
+    private void setCapacity(int indexCapacity) {
+        capacity = indexCapacity;
+        mask = indexCapacity - 1;
+    }
+
+    private static long slotAddress(int slot) {
+        return INDEX_HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private static long indexSize(int indexCapacity) {
+        return INDEX_HEADER_SIZE + indexCapacity * SLOT_SIZE;
+    }
+
+    private static long recordSize(int length) {
+        return RECORD_HEADER_SIZE + (long) Math.max(length, 0);
+    }
+
+    /**
+     * Crc of the record length, key and value
+     */
+    private static int crc(MemorySegment segment, long offset, int length) {
+        CRC32C crc = CRC.get();
+        crc.reset();
+        crc.update(segment.asSlice(offset + RECORD_LENGTH, recordSize(length) - RECORD_LENGTH).asByteBuffer());
+        return (int) crc.getValue();
+    }
+
+    private static int hash(int key) {
+        int hash = key * 0x9E37_79B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int capacityFor(int entries) {
+        int required = (int) Math.min(MAX_CAPACITY, (long) (entries / MAX_LOAD_FACTOR) + 1);
+        return Integer.highestOneBit(required - 1) << 1;
+    }
+
+    /**
+     * Iterates over the index slots, every step takes the read lock
+     */
+    private class EntryIterator implements Iterator<Entry<Integer, byte[]>> {
+        private int slot;
+        private Entry<Integer, byte[]> next;
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+
+            Lock readLock = lock.readLock();
+            readLock.lock();
+            try {
+                MemorySegment segment = index.segment;
+                for (; slot < capacity && next == null; slot++) {
+                    long offset = segment.get(LONG, slotAddress(slot));
+                    if (offset == EMPTY || offset == REMOVED) {
+                        continue;
+                    }
+
+                    int key = segment.get(INT, slotAddress(slot) + SLOT_KEY);
+                    next = new SimpleImmutableEntry<>(key, readValue(offset));
+                }
+            } finally {
+                readLock.unlock();
+            }
+
+            return next != null;
+        }
+
+        @Override
+        public Entry<Integer, byte[]> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            Entry<Integer, byte[]> entry = next;
+            next = null;
+            return entry;
+        }
+    }
+
+    /**
+     * A file mapped into memory with its own shared arena, closing the arena unmaps the file
+     */
+    private static class Mapping implements AutoCloseable {
+        private final Arena arena;
+        private final MemorySegment segment;
+
+        private Mapping(Arena arena, MemorySegment segment) {
+            this.arena = arena;
+            this.segment = segment;
+        }
+
+        /**
+         * Map a file, the file is extended if it's smaller than the size
+         */
+        static Mapping map(Path path, long size) throws IOException {
+            Arena arena = Arena.ofShared();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return new Mapping(arena, channel.map(MapMode.READ_WRITE, 0, size, arena));
+            } catch (IOException | RuntimeException e) {
+                arena.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() {
+            arena.close();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.corfudb.benchmarks.runtime.collections.experiment.rocksdb;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatch;
+
+/**
+ * Accumulates puts in a {@link WriteBatch} and writes the batch to RocksDbMap with a single call
+ * once the number of entries or the size of the batch reaches the limit.
+ * <p>
+ * A put doesn't read the database: the keys are not checked for existence, so a map with the exact
+ * entry counter recounts its entries after a batch is written, see {@link RocksDbMap#reconcileSize()}.
+ * The writer is not thread safe, every thread needs its own writer.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class RocksDbBatchWriter<K, V> implements AutoCloseable {
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1_000;
+    public static final long DEFAULT_MAX_BATCH_BYTES = 4L * 1024 * 1024;
+
+    private final RocksDbMap<K, V> map;
+
+    private final int maxBatchSize;
+
+    private final long maxBatchBytes;
+
+    private final WriteBatch batch = new WriteBatch();
+
+    private int batchSize;
+    private long batchBytes;
+
+    /**
+     * Number of batches written to the database
+     */
+    @Getter
+    private long numBatches;
+
+    /**
+     * Batch writer
+     *
+     * @param map           rocksDb map
+     * @param maxBatchSize  max number of entries in a batch, {@link #DEFAULT_MAX_BATCH_SIZE} if not set
+     * @param maxBatchBytes max size of keys and values in a batch, {@link #DEFAULT_MAX_BATCH_BYTES} if not set
+     */
+    @Builder
+    public RocksDbBatchWriter(@NonNull RocksDbMap<K, V> map, int maxBatchSize, long maxBatchBytes) {
+        this.map = map;
+        this.maxBatchSize = maxBatchSize > 0 ? maxBatchSize : DEFAULT_MAX_BATCH_SIZE;
+        this.maxBatchBytes = maxBatchBytes > 0 ? maxBatchBytes : DEFAULT_MAX_BATCH_BYTES;
+    }
+
+    /**
+     * Add an entry to the batch, flush the batch if it's full
+     *
+     * @param key   key
+     * @param value value
+     */
+    public void put(K key, V value) {
+        try {
+            byte[] serializedKey = map.toBytes(key);
+            byte[] serializedValue = map.toBytes(value);
+
+            batch.put(serializedKey, serializedValue);
+            batchSize++;
+            batchBytes += serializedKey.length + serializedValue.length;
+
+            if (batchSize >= maxBatchSize || batchBytes >= maxBatchBytes) {
+                flush();
+            }
+        } catch (RocksDBException e) {
+            throw new IllegalStateException("can't put data", e);
+        }
+    }
+
+    /**
+     * Write the batch to the database
+     */
+    public void flush() {
+        if (batchSize == 0) {
+            return;
+        }
+
+        try {
+            map.getDb().write(map.getWriteOptions(), batch);
+            map.batchWritten();
+            numBatches++;
+        } catch (RocksDBException e) {
+            throw new IllegalStateException("can't write batch", e);
+        } finally {
+            batch.clear();
+            batchSize = 0;
+            batchBytes = 0;
+        }
+    }
+
+    /**
+     * Flush the remaining entries and release native resources
+     */
+    @Override
+    public void close() {
+        try {
+            flush();
+        } finally {
+            batch.close();
+        }
+    }
+}
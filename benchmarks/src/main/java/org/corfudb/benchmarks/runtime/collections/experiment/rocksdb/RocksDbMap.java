@@ -2,29 +2,59 @@ package org.corfudb.benchmarks.runtime.collections.experiment.rocksdb;
 
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
+import com.google.common.util.concurrent.Striped;
 import lombok.Builder;
 import lombok.Builder.Default;
 import lombok.Getter;
 import lombok.NonNull;
+import org.corfudb.benchmarks.runtime.collections.experiment.rocksdb.RocksDbProfile.ProfileOptions;
 import org.corfudb.protocols.CorfuProtocolCommon;
-import org.rocksdb.Options;
-import org.rocksdb.PlainTableConfig;
+import org.rocksdb.Holder;
+import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
 import org.rocksdb.WriteOptions;
 
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
-import java.util.ArrayList;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.List;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A persistent Map backed by RocksDb embedded database.
+ * <p>
+ * If {@code directBuffers} is enabled, keys and values are serialized into thread local pooled direct buffers
+ * and passed to RocksDb with the exact length using ByteBuffer based get/put api, otherwise a new heap buffer
+ * is allocated for every key and value. The direct buffers belong to the map and are released by {@link #close()}.
+ * <p>
+ * {@link #size()} is the RocksDb estimation of the number of keys. With {@code exactSize} enabled the number
+ * of entries is maintained by write operations instead: every put checks if the key exists, which costs
+ * a point lookup per write, so the write benchmarks leave it disabled. Write batches don't check the keys,
+ * the database is recounted by the first size() after a batch.
+ * Existence checks use {@link RocksDB#keyMayExist} (memtable and bloom filters) to reject absent keys
+ * and an exact point lookup to confirm present keys.
+ * <p>
+ * {@link #keySet()}, {@link #values()} and {@link #entrySet()} are lazy views backed by RocksDb iterators,
+ * see {@link RocksDbSpliterator}. An iterator of a view releases its RocksDb iterator when it's exhausted,
+ * iterate the views to the end or use closeable streams:
+ * {@link #entryStream()}, {@link #scan(Object, Object)} and {@link #prefixScan(byte[])}.
+ * Range and prefix scans need a block based table format.
  *
  * @param <K> key type
  * @param <V> value type
@@ -36,13 +66,46 @@ public class RocksDbMap<K, V> implements Map<K, V> {
         RocksDB.loadLibrary();
     }
 
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private static final byte[] EMPTY_VALUE = new byte[0];
+    private static final int NUM_KEY_LOCKS = 1024;
+    private static final long DEFAULT_SCAN_READAHEAD_SIZE = 2L * 1024 * 1024;
+    private static final String PLAIN_TABLE_FACTORY = "PlainTable";
+
+    /**
+     * Number of entries in the database, maintained if exactSize is enabled
+     */
+    private final AtomicLong numEntries = new AtomicLong();
+
+    /**
+     * Write batches don't maintain the entry counter, the counter is reconciled by the next size()
+     */
+    private final AtomicBoolean sizeStale = new AtomicBoolean();
+
+    /**
+     * Direct buffers allocated by all the threads that used the map, released by {@link #close()}
+     */
+    private final Queue<ByteBuf> allocatedBuffers = new ConcurrentLinkedQueue<>();
+
+    private final ThreadLocal<ByteBuf> keyBuffer = ThreadLocal.withInitial(this::directBuffer);
+    private final ThreadLocal<ByteBuf> valueBuffer = ThreadLocal.withInitial(this::directBuffer);
+    private final ThreadLocal<ByteBuf> readBuffer = ThreadLocal.withInitial(this::directBuffer);
+
+    /**
+     * Serializes concurrent writes of the same key to keep the exact entry counter accurate
+     */
+    private final Striped<Lock> keyLocks = Striped.lock(NUM_KEY_LOCKS);
+
     @Getter
     private RocksDB db;
 
     @NonNull
+    @Getter
     private final Class<K> keyType;
 
     @NonNull
+    @Getter
     private final Class<V> valueType;
 
     @NonNull
@@ -55,73 +118,153 @@ public class RocksDbMap<K, V> implements Map<K, V> {
 
     @NonNull
     @Default
-    private final Options options = new Options()
-            .setCreateIfMissing(true)
-            .setWriteBufferSize((long) 256 * (long) 1024 * (long) 1024)
-            .setMaxWriteBufferNumber(4)
-            .setIncreaseParallelism(8)
-            //.setBloomLocality(10)
-
-            //.setOptimizeFiltersForHits(true)
-
-            //.setCompactionStyle(CompactionStyle.LEVEL)
-            //.setCompressionType(CompressionType.NO_COMPRESSION)
-
-            //.setMemTableConfig(new SkipListMemTableConfig())
-
-            .useCappedPrefixExtractor(64)
-            .setMemtablePrefixBloomSizeRatio(0.1)
-            .setTableFormatConfig(new PlainTableConfig())
-
-            /*
-            .setTableFormatConfig(new BlockBasedTableConfig()
-                    .setPartitionFilters(true)
-                    .setIndexType(IndexType.kHashSearch)
-                    .setPinL0FilterAndIndexBlocksInCache(true)
-                    //.setCacheIndexAndFilterBlocks(true) //- huge performance degradation
-                    .setCacheIndexAndFilterBlocksWithHighPriority(true)
-                    .setBlockCache(new LRUCache(100_000))
-                    .setFilterPolicy(new BloomFilter())
-            )*/;
+    private final ReadOptions readOptions = new ReadOptions();
+
+    /**
+     * Use pooled direct buffers and ByteBuffer based RocksDb api
+     */
+    @Default
+    private final boolean directBuffers = false;
+
+    /**
+     * Keep an exact entry counter, a put checks if the key exists
+     */
+    @Default
+    @Getter
+    private final boolean exactSize = false;
+
+    /**
+     * Readahead size of the iterators used by scans
+     */
+    @Default
+    @Getter
+    private final long scanReadaheadSize = DEFAULT_SCAN_READAHEAD_SIZE;
+
+    /**
+     * RocksDb options, see {@link RocksDbProfile}. Block based by default: range and prefix scans
+     * and parallel streams need total order seek, which a plain table with a prefix extractor doesn't support.
+     * The map owns the options and closes them along with the database.
+     */
+    @NonNull
+    @Default
+    private final ProfileOptions options = RocksDbProfile.BLOCK_LRU_BLOOM.options();
 
     public RocksDbMap<K, V> init() throws RocksDBException {
-        db = RocksDB.open(options, dbPath.toString());
+        db = RocksDB.open(options.getOptions(), dbPath.toString());
+        if (exactSize) {
+            reconcileSize();
+        }
         return this;
     }
 
+    /**
+     * Close the database and its options and release the direct buffers, the map can't be used after close
+     */
     public void close() {
         db.close();
+        options.close();
+
+        ByteBuf buffer;
+        while ((buffer = allocatedBuffers.poll()) != null) {
+            buffer.release();
+        }
     }
 
     @Override
     public int size() {
-        int size = 0;
-        try (RocksIterator iter = db.newIterator()) {
-            iter.seekToFirst();
-            while (iter.isValid()) {
-                size++;
-                iter.next();
+        return (int) Math.min(numEntries(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * The entry counter if exactSize is enabled, otherwise RocksDb estimation
+     */
+    private long numEntries() {
+        if (!exactSize) {
+            return estimateNumKeys();
+        }
+
+        if (sizeStale.compareAndSet(true, false)) {
+            reconcileSize();
+        }
+        return numEntries.get();
+    }
+
+    /**
+     * RocksDb estimation of the number of keys, it's cheap but not exact: overwritten and deleted keys
+     * are counted until compaction.
+     *
+     * @return estimated number of keys
+     */
+    public long estimateNumKeys() {
+        try {
+            return db.getLongProperty("rocksdb.estimate-num-keys");
+        } catch (RocksDBException e) {
+            throw new IllegalStateException("can't get estimate-num-keys", e);
+        }
+    }
+
+    /**
+     * Counts the entries in the database and resets the entry counter.
+     * The database is counted only if RocksDb estimation is not zero, so an empty database is reconciled for free.
+     *
+     * @return difference between the counted number of entries and the previous counter value
+     */
+    public long reconcileSize() {
+        long size = 0;
+        if (estimateNumKeys() > 0) {
+            try (RocksIterator iter = db.newIterator()) {
+                iter.seekToFirst();
+                while (iter.isValid()) {
+                    size++;
+                    iter.next();
+                }
             }
         }
 
-        return size;
+        return size - numEntries.getAndSet(size);
     }
 
     @Override
     public boolean isEmpty() {
-        try (RocksIterator iter = db.newIterator()) {
-            iter.seekToFirst();
-
-            return !iter.isValid();
-        }
+        return numEntries() == 0;
     }
 
     @Override
     public boolean containsKey(Object key) {
-        try (RocksIterator iter = db.newIterator()) {
-            iter.seek(serialize(key));
-            return iter.isValid();
+        try {
+            if (directBuffers) {
+                return existsDirect(serializeDirect(keyBuffer.get(), key));
+            }
+            return exists(serialize(key));
+        } catch (RocksDBException e) {
+            throw new IllegalStateException("can't check the key", e);
+        }
+    }
+
+    /**
+     * Fast path: keyMayExist never returns false for an existing key, so a negative answer of the memtable
+     * and the bloom filters is final. If the value was found in memory the key exists,
+     * otherwise confirm the key with a point lookup that doesn't copy the value.
+     */
+    boolean exists(byte[] key) throws RocksDBException {
+        Holder<byte[]> valueHolder = new Holder<>();
+        if (!db.keyMayExist(key, valueHolder)) {
+            return false;
+        }
+
+        if (valueHolder.getValue() != null) {
+            return true;
         }
+
+        return db.get(readOptions, key, EMPTY_VALUE) != RocksDB.NOT_FOUND;
+    }
+
+    /**
+     * Point lookup into an empty direct buffer, RocksDb checks the bloom filters before reading the data
+     */
+    private boolean existsDirect(ByteBuf keyBuf) throws RocksDBException {
+        ByteBuffer emptyValue = readBuffer.get().internalNioBuffer(0, 0);
+        return db.get(readOptions, nioBuffer(keyBuf), emptyValue) != RocksDB.NOT_FOUND;
     }
 
     @Override
@@ -141,6 +284,10 @@ public class RocksDbMap<K, V> implements Map<K, V> {
 
     @Override
     public V get(Object key) {
+        if (directBuffers) {
+            return getDirect(key);
+        }
+
         try {
             byte[] value = db.get(serialize(key));
             if (value == null) {
@@ -152,26 +299,92 @@ public class RocksDbMap<K, V> implements Map<K, V> {
         }
     }
 
+    private V getDirect(Object key) {
+        ByteBuf keyBuf = serializeDirect(keyBuffer.get(), key);
+        ByteBuf readBuf = readBuffer.get();
+
+        try {
+            int size = db.get(readOptions, nioBuffer(keyBuf), readBuf.internalNioBuffer(0, readBuf.capacity()));
+            if (size == RocksDB.NOT_FOUND) {
+                return null;
+            }
+
+            // The value is larger than the buffer, grow the buffer and read the value again
+            if (size > readBuf.capacity()) {
+                readBuf.capacity(size);
+                db.get(readOptions, nioBuffer(keyBuf), readBuf.internalNioBuffer(0, size));
+            }
+
+            readBuf.setIndex(0, size);
+            return CorfuProtocolCommon.fromBuffer(readBuf, valueType);
+        } catch (RocksDBException e) {
+            throw new IllegalStateException("can't get data", e);
+        }
+    }
+
     @Override
     public V put(K key, V value) {
+        if (!exactSize) {
+            write(key, value);
+            return value;
+        }
+
+        Lock lock = keyLocks.get(key);
+        lock.lock();
         try {
-            db.put(opts, serialize(key), serialize(value));
+            if (write(key, value)) {
+                numEntries.incrementAndGet();
+            }
             return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write an entry, the existence of the key is checked only if exactSize is enabled
+     *
+     * @return true if the key is new
+     */
+    private boolean write(K key, V value) {
+        try {
+            boolean newEntry;
+            if (directBuffers) {
+                ByteBuf keyBuf = serializeDirect(keyBuffer.get(), key);
+                ByteBuf valueBuf = serializeDirect(valueBuffer.get(), value);
+                newEntry = exactSize && !existsDirect(keyBuf);
+                db.put(opts, nioBuffer(keyBuf), nioBuffer(valueBuf));
+            } else {
+                byte[] serializedKey = serialize(key);
+                newEntry = exactSize && !exists(serializedKey);
+                db.put(opts, serializedKey, serialize(value));
+            }
+            return newEntry;
         } catch (RocksDBException e) {
             throw new IllegalStateException("can't put data", e);
         }
-
     }
 
     @Override
     public V remove(Object key) {
+        Lock lock = keyLocks.get(key);
+        lock.lock();
         try {
-            byte[] serializedKey = serialize(key);
+            byte[] serializedKey = toBytes(key);
             byte[] value = db.get(serializedKey);
-            db.delete(serializedKey);
+            if (value == null) {
+                return null;
+            }
+
+            db.delete(opts, serializedKey);
+            if (exactSize) {
+                numEntries.decrementAndGet();
+            }
             return CorfuProtocolCommon.fromBuffer(value, valueType);
         } catch (RocksDBException e) {
             throw new IllegalStateException("Error", e);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -187,16 +400,86 @@ public class RocksDbMap<K, V> implements Map<K, V> {
         return buffer.array();
     }
 
+    /**
+     * Serialize an object into a byte array, the result matches the keys and values stored by
+     * {@link #put(Object, Object)}
+     *
+     * @param obj key or value
+     * @return byte array
+     */
+    byte[] toBytes(Object obj) {
+        if (directBuffers) {
+            return ByteBufUtil.getBytes(serializeDirect(keyBuffer.get(), obj));
+        }
+
+        return serialize(obj);
+    }
+
+    <T> T fromBytes(byte[] bytes, Class<T> type) {
+        return CorfuProtocolCommon.fromBuffer(bytes, type);
+    }
+
+    private static ByteBuf serializeDirect(ByteBuf buffer, Object obj) {
+        buffer.clear();
+        CorfuProtocolCommon.serialize(buffer, obj);
+        return buffer;
+    }
+
+    /**
+     * Provides a reusable nio view of the readable bytes of the buffer
+     */
+    private static ByteBuffer nioBuffer(ByteBuf buffer) {
+        return buffer.internalNioBuffer(buffer.readerIndex(), buffer.readableBytes());
+    }
+
+    private ByteBuf directBuffer() {
+        ByteBuf buffer = PooledByteBufAllocator.DEFAULT.directBuffer(INITIAL_BUFFER_SIZE);
+        allocatedBuffers.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * Writes all the entries using write batches
+     *
+     * @param map entries
+     */
     @Override
     public void putAll(Map<? extends K, ? extends V> map) {
-        map.forEach(this::put);
+        try (RocksDbBatchWriter<K, V> writer = batchWriter()) {
+            map.forEach(writer::put);
+        }
+    }
+
+    /**
+     * Creates a batch writer with default thresholds
+     *
+     * @return batch writer
+     */
+    public RocksDbBatchWriter<K, V> batchWriter() {
+        return RocksDbBatchWriter.<K, V>builder()
+                .map(this)
+                .build();
+    }
+
+    /**
+     * A write batch doesn't check which keys are new, so the exact entry counter has to be recounted
+     */
+    void batchWritten() {
+        if (exactSize) {
+            sizeStale.set(true);
+        }
+    }
+
+    WriteOptions getWriteOptions() {
+        return opts;
     }
 
     @Override
     public void clear() {
         try {
             db.close();
-            RocksDB.destroyDB(dbPath.toString(), options);
+            RocksDB.destroyDB(dbPath.toString(), options.getOptions());
+            numEntries.set(0);
         } catch (RocksDBException e) {
             throw new IllegalStateException("yay");
         }
@@ -204,38 +487,118 @@ public class RocksDbMap<K, V> implements Map<K, V> {
 
     @Override
     public Set<K> keySet() {
-        try (RocksIterator iter = db.newIterator()) {
-            iter.seekToFirst();
+        return new AbstractSet<K>() {
+            @Override
+            public Iterator<K> iterator() {
+                return entryStream().map(Entry::getKey).iterator();
+            }
 
-            Set<K> keySet = new HashSet<>();
-            while (iter.isValid()) {
-                keySet.add(CorfuProtocolCommon.fromBuffer(iter.key(), keyType));
-                iter.next();
+            @Override
+            public boolean contains(Object key) {
+                return containsKey(key);
             }
 
-            return keySet;
-        }
+            @Override
+            public int size() {
+                return RocksDbMap.this.size();
+            }
+        };
     }
 
     @Override
     public Collection<V> values() {
-        List<V> result = new ArrayList<>();
-
-        try (RocksIterator iter = db.newIterator()) {
-            iter.seekToFirst();
-            while (iter.isValid()) {
-                V value = CorfuProtocolCommon.fromBuffer(iter.value(), valueType);
-                result.add(value);
-                iter.next();
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return entryStream().map(Entry::getValue).iterator();
             }
-        }
 
-        return result;
+            @Override
+            public int size() {
+                return RocksDbMap.this.size();
+            }
+        };
     }
 
     @Override
     public Set<Entry<K, V>> entrySet() {
-        throw new IllegalStateException("yay");
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return Spliterators.iterator(spliterator(null, null));
+            }
+
+            @Override
+            public int size() {
+                return RocksDbMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Lazy stream of all the entries
+     *
+     * @return entry stream, must be closed if not consumed till the end
+     */
+    public Stream<Entry<K, V>> entryStream() {
+        return stream(spliterator(null, null));
+    }
+
+    /**
+     * Lazy stream of the entries in the key range [from, to).
+     * The range is defined by the order of serialized keys.
+     *
+     * @param from inclusive lower bound, null - the first key
+     * @param to   exclusive upper bound, null - unbounded
+     * @return entry stream, must be closed if not consumed till the end
+     */
+    public Stream<Entry<K, V>> scan(K from, K to) {
+        checkRangeScans();
+        byte[] lowerBound = from == null ? null : toBytes(from);
+        byte[] upperBound = to == null ? null : toBytes(to);
+        return stream(spliterator(lowerBound, upperBound));
+    }
+
+    /**
+     * Lazy stream of the entries which serialized keys start with the prefix
+     *
+     * @param prefix serialized key prefix
+     * @return entry stream, must be closed if not consumed till the end
+     */
+    public Stream<Entry<K, V>> prefixScan(@NonNull byte[] prefix) {
+        checkRangeScans();
+        return stream(spliterator(prefix, RocksDbSpliterator.prefixUpperBound(prefix)));
+    }
+
+    /**
+     * Spliterator over the key range, it can be split by key ranges to scan the map by a parallel stream
+     *
+     * @param lowerBound inclusive lower bound, null - the first key
+     * @param upperBound exclusive upper bound, null - unbounded
+     * @return spliterator
+     */
+    public RocksDbSpliterator<K, V> spliterator(byte[] lowerBound, byte[] upperBound) {
+        return new RocksDbSpliterator<>(this, lowerBound, upperBound, numEntries());
+    }
+
+    /**
+     * Bounded iterators need total order seek, a plain table with a prefix extractor doesn't support it
+     *
+     * @return true if the table format supports range scans
+     */
+    boolean supportsRangeScans() {
+        return !PLAIN_TABLE_FACTORY.equals(options.getOptions().tableFactoryName());
+    }
+
+    private void checkRangeScans() {
+        if (!supportsRangeScans()) {
+            throw new UnsupportedOperationException("Range scans are not supported by " + PLAIN_TABLE_FACTORY
+                    + ", use a block based profile, like: " + RocksDbProfile.BLOCK_LRU_BLOOM.getProfileName());
+        }
+    }
+
+    private Stream<Entry<K, V>> stream(RocksDbSpliterator<K, V> spliterator) {
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
     }
 
     /**
@@ -257,6 +620,10 @@ public class RocksDbMap<K, V> implements Map<K, V> {
                 .append(db.getProperty("rocksdb.size-all-mem-tables"))
                 .append("\n** Estimate num keys **\n")
                 .append(db.getProperty("rocksdb.estimate-num-keys"))
+                .append("\n** Block cache usage **\n")
+                .append(db.getProperty("rocksdb.block-cache-usage"))
+                .append("\n** Num entries **\n")
+                .append(numEntries())
                 .toString();
     }
 }
@@ -0,0 +1,163 @@
+package org.corfudb.benchmarks.runtime.collections.experiment.rocksdb;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.CompressionType;
+import org.rocksdb.IndexType;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+import org.rocksdb.PlainTableConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Named RocksDb tuning profiles, used to compare table formats, caches, filters and compression.
+ * Every call of {@link #options()} creates new options, a profile can be used by many databases at a time.
+ * The options and the native objects they refer to (block cache, filter policy) have to be closed
+ * once the database is closed, see {@link ProfileOptions}.
+ */
+public enum RocksDbProfile {
+    /**
+     * Plain table with a capped prefix extractor and a memtable prefix bloom filter.
+     * Doesn't support total order seek (range scans).
+     */
+    PLAIN_PREFIX("plain-prefix", resources -> baseOptions()
+            .useCappedPrefixExtractor(64)
+            .setMemtablePrefixBloomSizeRatio(0.1)
+            .setTableFormatConfig(new PlainTableConfig().setBloomBitsPerKey(RocksDbProfile.BLOOM_BITS_PER_KEY))
+    ),
+
+    /**
+     * Block based table, LRU block cache, full bloom filter, no compression
+     */
+    BLOCK_LRU_BLOOM("block-lru-bloom", resources -> baseOptions()
+            .setCompressionType(CompressionType.NO_COMPRESSION)
+            .setTableFormatConfig(blockLruBloom(resources))
+    ),
+
+    /**
+     * Block based table with partitioned index and filters, the top level index is pinned in the cache
+     */
+    BLOCK_PARTITIONED_INDEX("block-partitioned-index", resources -> baseOptions()
+            .setCompressionType(CompressionType.NO_COMPRESSION)
+            .setTableFormatConfig(blockLruBloom(resources)
+                    .setIndexType(IndexType.kTwoLevelIndexSearch)
+                    .setPartitionFilters(true)
+                    .setCacheIndexAndFilterBlocks(true)
+                    .setCacheIndexAndFilterBlocksWithHighPriority(true)
+                    .setPinTopLevelIndexAndFilter(true)
+                    .setPinL0FilterAndIndexBlocksInCache(true)
+            )
+    ),
+
+    /**
+     * block-lru-bloom with LZ4 compression
+     */
+    LZ4("lz4", resources -> baseOptions()
+            .setCompressionType(CompressionType.LZ4_COMPRESSION)
+            .setTableFormatConfig(blockLruBloom(resources))
+    ),
+
+    /**
+     * block-lru-bloom with ZSTD compression
+     */
+    ZSTD("zstd", resources -> baseOptions()
+            .setCompressionType(CompressionType.ZSTD_COMPRESSION)
+            .setTableFormatConfig(blockLruBloom(resources))
+    );
+
+    private static final int BLOOM_BITS_PER_KEY = 10;
+    private static final long BLOCK_CACHE_SIZE = 256L * 1024 * 1024;
+
+    @Getter
+    private final String profileName;
+
+    /**
+     * Creates the options, the native objects used by the options are added to the list of resources
+     */
+    private final Function<List<AutoCloseable>, Options> optionsFactory;
+
+    RocksDbProfile(String profileName, Function<List<AutoCloseable>, Options> optionsFactory) {
+        this.profileName = profileName;
+        this.optionsFactory = optionsFactory;
+    }
+
+    /**
+     * Creates RocksDb options of the profile
+     *
+     * @return new options, to be closed after the database
+     */
+    public ProfileOptions options() {
+        List<AutoCloseable> resources = new ArrayList<>();
+        Options options = optionsFactory.apply(resources);
+        return new ProfileOptions(options, resources);
+    }
+
+    /**
+     * Find a profile by name
+     *
+     * @param profileName profile name, like: block-lru-bloom
+     * @return rocksDb profile
+     */
+    public static RocksDbProfile fromName(String profileName) {
+        return Arrays.stream(values())
+                .filter(profile -> profile.profileName.equals(profileName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown RocksDb profile: " + profileName));
+    }
+
+    /**
+     * Options shared by all profiles: disabled WAL is set by write options of RocksDbMap,
+     * WriteBufferSize is 256 mb and MaxWriteBufferNumber is 4
+     */
+    private static Options baseOptions() {
+        return new Options()
+                .setCreateIfMissing(true)
+                .setWriteBufferSize((long) 256 * (long) 1024 * (long) 1024)
+                .setMaxWriteBufferNumber(4)
+                .setIncreaseParallelism(8);
+    }
+
+    private static BlockBasedTableConfig blockLruBloom(List<AutoCloseable> resources) {
+        LRUCache blockCache = new LRUCache(BLOCK_CACHE_SIZE);
+        resources.add(blockCache);
+        BloomFilter filter = new BloomFilter(BLOOM_BITS_PER_KEY, false);
+        resources.add(filter);
+
+        return new BlockBasedTableConfig()
+                .setBlockCache(blockCache)
+                .setFilterPolicy(filter);
+    }
+
+    /**
+     * RocksDb options of a profile along with the native objects they refer to
+     */
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class ProfileOptions implements AutoCloseable {
+        @Getter
+        private final Options options;
+
+        private final List<AutoCloseable> resources;
+
+        /**
+         * Close the options, the block cache and the filter policy
+         */
+        @Override
+        public void close() {
+            options.close();
+            for (AutoCloseable resource : resources) {
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    throw new IllegalStateException("can't close rocksDb options", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package org.corfudb.benchmarks.runtime.collections.experiment.rocksdb;
+
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.Slice;
+
+import java.math.BigInteger;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Arrays;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Consumer;
+
+/**
+ * Lazy spliterator over a key range of RocksDbMap: [lowerBound, upperBound).
+ * <p>
+ * Entries are read with a RocksDb iterator bounded by the key range, so only the current entry is kept on heap.
+ * The spliterator splits by key range: the range is cut in the middle of the lower and upper keys,
+ * which allows to scan the map by a parallel stream where every split has its own RocksDb iterator.
+ * <p>
+ * RocksDb iterators, their read options and bounds are native resources. They are closed once the range
+ * of the iterator is exhausted, the remaining ones are closed by {@link #close()} of the root spliterator
+ * (see stream onClose). The map is split only if its table format supports range scans.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class RocksDbSpliterator<K, V> implements Spliterator<Entry<K, V>>, AutoCloseable {
+
+    /**
+     * A range is not split further if it has less entries
+     */
+    private static final long MIN_SPLIT_SIZE = 1024;
+
+    private final RocksDbMap<K, V> map;
+
+    /**
+     * Native resources (iterators, read options, slices) of this spliterator and all its splits
+     */
+    private final Deque<AutoCloseable> resources;
+
+    /**
+     * Native resources of the iterator of this split, in the order of creation
+     */
+    private final Deque<AutoCloseable> iteratorResources = new ArrayDeque<>();
+
+    /**
+     * Inclusive lower bound, null - the first key of the map
+     */
+    private byte[] lowerBound;
+
+    /**
+     * Exclusive upper bound, null - unbounded
+     */
+    private final byte[] upperBound;
+
+    private long estimatedSize;
+
+    private RocksIterator iterator;
+
+    private boolean exhausted;
+
+    /**
+     * Spliterator over a key range
+     *
+     * @param map           rocksDb map
+     * @param lowerBound    inclusive lower bound, null - the first key
+     * @param upperBound    exclusive upper bound, null - unbounded
+     * @param estimatedSize estimated number of entries in the range
+     */
+    public RocksDbSpliterator(RocksDbMap<K, V> map, byte[] lowerBound, byte[] upperBound, long estimatedSize) {
+        this(map, lowerBound, upperBound, estimatedSize, new ConcurrentLinkedDeque<>());
+    }
+
+    private RocksDbSpliterator(RocksDbMap<K, V> map, byte[] lowerBound, byte[] upperBound, long estimatedSize,
+                               Deque<AutoCloseable> resources) {
+        this.map = map;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.estimatedSize = estimatedSize;
+        this.resources = resources;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Entry<K, V>> action) {
+        if (exhausted) {
+            return false;
+        }
+
+        open();
+
+        if (!iterator.isValid()) {
+            closeIterator();
+            return false;
+        }
+
+        K key = map.fromBytes(iterator.key(), map.getKeyType());
+        V value = map.fromBytes(iterator.value(), map.getValueType());
+        iterator.next();
+
+        action.accept(new SimpleImmutableEntry<>(key, value));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Entry<K, V>> action) {
+        while (tryAdvance(action)) {
+            //consume all entries
+        }
+    }
+
+    /**
+     * Split the key range in the middle, only a spliterator that has not been started can be split
+     *
+     * @return spliterator over the first half of the range
+     */
+    @Override
+    public Spliterator<Entry<K, V>> trySplit() {
+        if (iterator != null || exhausted || estimatedSize < MIN_SPLIT_SIZE || !map.supportsRangeScans()) {
+            return null;
+        }
+
+        byte[] lower = lowerBound != null ? lowerBound : firstKey();
+        if (lower == null) {
+            return null;
+        }
+
+        byte[] upper = upperBound != null ? upperBound : lastKeyExclusive(lower.length);
+        byte[] middle = middle(lower, upper);
+        if (Arrays.compareUnsigned(middle, lower) <= 0 || Arrays.compareUnsigned(middle, upper) >= 0) {
+            return null;
+        }
+
+        long splitSize = estimatedSize / 2;
+        RocksDbSpliterator<K, V> prefix = new RocksDbSpliterator<>(map, lower, middle, splitSize, resources);
+
+        lowerBound = middle;
+        estimatedSize -= splitSize;
+
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return estimatedSize;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | NONNULL;
+    }
+
+    /**
+     * Close all iterators of this spliterator and its splits, an iterator is closed before its bounds
+     */
+    @Override
+    public void close() {
+        AutoCloseable resource;
+        while ((resource = resources.pollLast()) != null) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                throw new IllegalStateException("can't close iterator", e);
+            }
+        }
+    }
+
+    private void open() {
+        if (iterator != null) {
+            return;
+        }
+
+        ReadOptions readOptions = new ReadOptions()
+                .setReadaheadSize(map.getScanReadaheadSize())
+                .setFillCache(false);
+        register(readOptions);
+
+        if (lowerBound != null || upperBound != null) {
+            readOptions.setTotalOrderSeek(true);
+        }
+
+        if (lowerBound != null) {
+            Slice lower = new Slice(lowerBound);
+            register(lower);
+            readOptions.setIterateLowerBound(lower);
+        }
+
+        if (upperBound != null) {
+            Slice upper = new Slice(upperBound);
+            register(upper);
+            readOptions.setIterateUpperBound(upper);
+        }
+
+        iterator = map.getDb().newIterator(readOptions);
+        register(iterator);
+
+        if (lowerBound != null) {
+            iterator.seek(lowerBound);
+        } else {
+            iterator.seekToFirst();
+        }
+    }
+
+    private void register(AutoCloseable resource) {
+        resources.add(resource);
+        iteratorResources.add(resource);
+    }
+
+    /**
+     * Close the exhausted iterator along with its read options and bounds
+     */
+    private void closeIterator() {
+        exhausted = true;
+
+        try {
+            iterator.status();
+        } catch (RocksDBException e) {
+            throw new IllegalStateException("iterator failure", e);
+        } finally {
+            AutoCloseable resource;
+            while ((resource = iteratorResources.pollLast()) != null) {
+                resources.remove(resource);
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    throw new IllegalStateException("can't close iterator", e);
+                }
+            }
+        }
+    }
+
+    private byte[] firstKey() {
+        try (RocksIterator iter = map.getDb().newIterator()) {
+            iter.seekToFirst();
+            return iter.isValid() ? iter.key() : null;
+        }
+    }
+
+    /**
+     * Provides an exclusive upper bound of the map keys.
+     * If the last key is not available (some table formats don't support seekToLast)
+     * the bound is the max key of the given length.
+     */
+    private byte[] lastKeyExclusive(int length) {
+        try (RocksIterator iter = map.getDb().newIterator()) {
+            iter.seekToLast();
+            if (iter.isValid()) {
+                // the smallest key that is greater than the last key
+                return Arrays.copyOf(iter.key(), iter.key().length + 1);
+            }
+        }
+
+        byte[] maxKey = new byte[length];
+        Arrays.fill(maxKey, (byte) 0xFF);
+        return maxKey;
+    }
+
+    /**
+     * Middle of two keys, keys are considered as unsigned numbers padded with zeros to the same length
+     */
+    static byte[] middle(byte[] lower, byte[] upper) {
+        int length = Math.max(lower.length, upper.length);
+
+        BigInteger low = new BigInteger(1, Arrays.copyOf(lower, length));
+        BigInteger high = new BigInteger(1, Arrays.copyOf(upper, length));
+        byte[] middle = low.add(high).shiftRight(1).toByteArray();
+
+        // strip the sign byte or restore the leading zeros
+        byte[] result = new byte[length];
+        int srcPos = Math.max(0, middle.length - length);
+        int destPos = Math.max(0, length - middle.length);
+        System.arraycopy(middle, srcPos, result, destPos, middle.length - srcPos);
+        return result;
+    }
+
+    /**
+     * Provides the smallest key that is greater than all the keys starting with the prefix
+     *
+     * @param prefix key prefix
+     * @return exclusive upper bound, null if all bytes of the prefix are 0xFF
+     */
+    static byte[] prefixUpperBound(byte[] prefix) {
+        for (int i = prefix.length - 1; i >= 0; i--) {
+            if (prefix[i] != (byte) 0xFF) {
+                byte[] bound = Arrays.copyOf(prefix, i + 1);
+                bound[i]++;
+                return bound;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,183 @@
+package org.corfudb.benchmarks.runtime.collections.experiment.rocksdb;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind buffer in front of RocksDbMap.
+ * <p>
+ * Puts from many threads are coalesced in memory (the last value of a key wins) and written to the database
+ * in batches when the buffer reaches {@code maxBatchSize} entries or every {@code flushInterval}.
+ * A writer that fills the buffer flushes it itself, which slows down the writers if the database can't keep up.
+ * Reads see the buffered values.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+@Slf4j
+public class RocksDbWriteBehind<K, V> implements AutoCloseable {
+
+    private final RocksDbMap<K, V> map;
+
+    private final int maxBatchSize;
+
+    private final long maxBatchBytes;
+
+    /**
+     * Writers hold the read lock to update the buffer, flush holds the write lock to swap the buffer
+     */
+    private final ReadWriteLock bufferLock = new ReentrantReadWriteLock();
+
+    private final Object flushLock = new Object();
+
+    private final ScheduledExecutorService flusher;
+
+    private volatile Map<K, V> buffer = new ConcurrentHashMap<>();
+
+    /**
+     * The buffer that is being written to the database
+     */
+    private volatile Map<K, V> flushing = Collections.emptyMap();
+
+    /**
+     * Number of flushes
+     */
+    @Getter
+    private final AtomicLong numFlushes = new AtomicLong();
+
+    /**
+     * Write-behind buffer
+     *
+     * @param map           rocksDb map
+     * @param maxBatchSize  max number of entries in the buffer and in a write batch
+     * @param maxBatchBytes max size of a write batch, see {@link RocksDbBatchWriter}
+     * @param flushInterval max time between flushes
+     */
+    @Builder
+    public RocksDbWriteBehind(@NonNull RocksDbMap<K, V> map, int maxBatchSize, long maxBatchBytes,
+                              @NonNull Duration flushInterval) {
+        this.map = map;
+        this.maxBatchSize = maxBatchSize > 0 ? maxBatchSize : RocksDbBatchWriter.DEFAULT_MAX_BATCH_SIZE;
+        this.maxBatchBytes = maxBatchBytes;
+
+        flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("rocksdb-write-behind-%d")
+                .setDaemon(true)
+                .build()
+        );
+
+        long intervalMs = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::scheduledFlush, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Buffer an entry, flush the buffer if it's full
+     *
+     * @param key   key
+     * @param value value
+     */
+    public void put(@NonNull K key, @NonNull V value) {
+        int bufferSize;
+
+        bufferLock.readLock().lock();
+        try {
+            buffer.put(key, value);
+            bufferSize = buffer.size();
+        } finally {
+            bufferLock.readLock().unlock();
+        }
+
+        if (bufferSize >= maxBatchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Get a value from the buffer or from the database
+     *
+     * @param key key
+     * @return value
+     */
+    public V get(@NonNull K key) {
+        V value = buffer.get(key);
+        if (value != null) {
+            return value;
+        }
+
+        value = flushing.get(key);
+        if (value != null) {
+            return value;
+        }
+
+        return map.get(key);
+    }
+
+    /**
+     * Write buffered entries to the database
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            bufferLock.writeLock().lock();
+            try {
+                if (buffer.isEmpty()) {
+                    return;
+                }
+
+                flushing = buffer;
+                buffer = new ConcurrentHashMap<>();
+            } finally {
+                bufferLock.writeLock().unlock();
+            }
+
+            RocksDbBatchWriter<K, V> writer = RocksDbBatchWriter.<K, V>builder()
+                    .map(map)
+                    .maxBatchSize(maxBatchSize)
+                    .maxBatchBytes(maxBatchBytes)
+                    .build();
+
+            try (RocksDbBatchWriter<K, V> batchWriter = writer) {
+                flushing.forEach(batchWriter::put);
+            } finally {
+                flushing = Collections.emptyMap();
+            }
+
+            numFlushes.incrementAndGet();
+        }
+    }
+
+    private void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Write-behind flush failed", e);
+        }
+    }
+
+    /**
+     * Stop the background flusher and flush the remaining entries
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
@@ -1,20 +1,30 @@
 package org.corfudb.benchmarks.util;
 
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Random;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Fast data generator, can be used to achieve high throughput for data-intensive operations.
+ * <p>
+ * Values are slices of a pre-generated pool of ascii characters at random offsets.
+ * Offsets are drawn from {@link ThreadLocalRandom}, so benchmark threads don't contend on a shared seed.
+ * Strings are built from latin-1 bytes (compact strings, a single copy), byte arrays are copies of the pool,
+ * {@link ByteBuffer} and {@link ByteString} values are read-only views of the pool and don't copy anything.
  */
 @Slf4j
 public class DataGenerator {
 
-    private static final char[] CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ1234567890".toCharArray();
-    private static final Random rnd = new Random();
+    private static final byte[] CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ1234567890".getBytes(StandardCharsets.US_ASCII);
 
     private static final int PRE_GENERATED_DATASET_SIZE = 16 * 1024 * 1024;
-    private static final char[] PRE_GENERATED = generate();
+    private static final byte[] PRE_GENERATED = generate();
 
     private DataGenerator() {
         //prevent creating instances
@@ -28,14 +38,52 @@ public class DataGenerator {
      */
     public static String generateDataString(int size) {
         log.trace("Generate a random data string");
+        return new String(PRE_GENERATED, offset(size), size, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Generates a byte array, a copy of the pre-generated data
+     *
+     * @param size array size
+     * @return pseudo random bytes
+     */
+    public static byte[] generateDataBytes(int size) {
+        int offset = offset(size);
+        return Arrays.copyOfRange(PRE_GENERATED, offset, offset + size);
+    }
+
+    /**
+     * Provides a read-only view of the pre-generated data, nothing is copied
+     *
+     * @param size buffer size
+     * @return pseudo random bytes
+     */
+    public static ByteBuffer generateDataBuffer(int size) {
+        return ByteBuffer.wrap(PRE_GENERATED, offset(size), size).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Provides a protobuf view of the pre-generated data, nothing is copied.
+     * The pool is never modified, so wrapping it without a copy is safe.
+     *
+     * @param size byte string size
+     * @return pseudo random bytes
+     */
+    public static ByteString generateDataByteString(int size) {
+        return UnsafeByteOperations.unsafeWrap(PRE_GENERATED, offset(size), size);
+    }
+
+    private static int offset(int size) {
+        if (size < 0 || size > PRE_GENERATED.length) {
+            throw new IllegalArgumentException("Invalid data size: " + size);
+        }
 
-        int length = PRE_GENERATED.length;
-        int offset = rnd.nextInt(length - size - 1);
-        return new String(PRE_GENERATED, offset, size);
+        return ThreadLocalRandom.current().nextInt(PRE_GENERATED.length - size + 1);
     }
 
-    private static char[] generate() {
-        char[] result = new char[PRE_GENERATED_DATASET_SIZE];
+    private static byte[] generate() {
+        SplittableRandom rnd = new SplittableRandom();
+        byte[] result = new byte[PRE_GENERATED_DATASET_SIZE];
         for (int i = 0; i < PRE_GENERATED_DATASET_SIZE; i++) {
             result[i] = CHARS[rnd.nextInt(CHARS.length)];
         }
@@ -0,0 +1,250 @@
+package org.corfudb.benchmarks.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Key access distributions of table benchmarks, keys are in the range: [0, keySpace).
+ * All the distributions are thread safe and draw random numbers from {@link ThreadLocalRandom}.
+ * <p>
+ * A distribution is described by a spec, used by jmh params and the benchmark config:
+ * <ul>
+ *     <li>uniform</li>
+ *     <li>zipfian[:theta] - zipfian with 0 &lt; theta &lt; 1 (default 0.99), hot keys are scattered</li>
+ *     <li>hotspot[:hotOpsFraction:hotKeysFraction] - like 0.8:0.2, 80% of operations access 20% of keys</li>
+ *     <li>latest[:theta] - zipfian by recency: the latest inserted keys are the most popular</li>
+ *     <li>sequential - 0, 1, 2 ... keySpace - 1, 0, 1 ...</li>
+ * </ul>
+ */
+public interface KeyDistribution {
+
+    /**
+     * Next key to access
+     *
+     * @return key
+     */
+    int nextKey();
+
+    /**
+     * Notifies the distribution about an inserted key, used by the latest distribution
+     *
+     * @param key inserted key
+     */
+    default void onInsert(int key) {
+        //most distributions don't depend on inserts
+    }
+
+    /**
+     * Creates a key distribution
+     *
+     * @param spec     distribution spec, like: zipfian:0.99
+     * @param keySpace number of keys
+     * @return key distribution
+     */
+    static KeyDistribution of(String spec, int keySpace) {
+        if (keySpace <= 0) {
+            throw new IllegalArgumentException("Invalid key space: " + keySpace);
+        }
+
+        String[] args = spec.trim().split(":");
+        switch (args[0]) {
+            case "uniform":
+                return new UniformDistribution(keySpace);
+            case "zipfian":
+                double theta = args.length > 1 ? Double.parseDouble(args[1]) : ZipfianDistribution.DEFAULT_THETA;
+                return new ScrambledDistribution(new ZipfianDistribution(keySpace, theta));
+            case "hotspot":
+                double hotOps = args.length > 1 ? Double.parseDouble(args[1]) : HotspotDistribution.DEFAULT_HOT_OPS;
+                double hotKeys = args.length > 2 ? Double.parseDouble(args[2]) : HotspotDistribution.DEFAULT_HOT_KEYS;
+                return new HotspotDistribution(keySpace, hotOps, hotKeys);
+            case "latest":
+                double latestTheta = args.length > 1
+                        ? Double.parseDouble(args[1])
+                        : ZipfianDistribution.DEFAULT_THETA;
+                return new LatestDistribution(new ZipfianDistribution(keySpace, latestTheta));
+            case "sequential":
+                return new SequentialDistribution(keySpace);
+            default:
+                throw new IllegalArgumentException("Unknown key distribution: " + spec);
+        }
+    }
+
+    /**
+     * Every key has the same probability
+     */
+    class UniformDistribution implements KeyDistribution {
+        private final int keySpace;
+
+        public UniformDistribution(int keySpace) {
+            this.keySpace = keySpace;
+        }
+
+        @Override
+        public int nextKey() {
+            return ThreadLocalRandom.current().nextInt(keySpace);
+        }
+    }
+
+    /**
+     * Zipfian distribution of ranks: rank 0 is the most popular.
+     * Algorithm from "Quickly Generating Billion-Record Synthetic Databases" (Gray et al.), as in YCSB.
+     * The zeta constant is computed exactly for the first million ranks and approximated by an integral
+     * for the rest, so a distribution over the whole int range is created in milliseconds.
+     */
+    class ZipfianDistribution implements KeyDistribution {
+        public static final double DEFAULT_THETA = 0.99;
+
+        private static final int EXACT_ZETA_TERMS = 1_000_000;
+
+        private final int keySpace;
+        private final double alpha;
+        private final double zetaN;
+        private final double eta;
+        private final double secondRankThreshold;
+
+        public ZipfianDistribution(int keySpace, double theta) {
+            if (theta <= 0 || theta >= 1) {
+                throw new IllegalArgumentException("Zipfian theta must be in (0, 1): " + theta);
+            }
+
+            this.keySpace = keySpace;
+            this.alpha = 1.0 / (1.0 - theta);
+            this.zetaN = zeta(keySpace, theta);
+            double zeta2 = zeta(2, theta);
+            this.eta = (1 - Math.pow(2.0 / keySpace, 1 - theta)) / (1 - zeta2 / zetaN);
+            this.secondRankThreshold = 1 + Math.pow(0.5, theta);
+        }
+
+        @Override
+        public int nextKey() {
+            double u = ThreadLocalRandom.current().nextDouble();
+            double uz = u * zetaN;
+
+            if (uz < 1.0) {
+                return 0;
+            }
+
+            if (uz < secondRankThreshold && keySpace > 1) {
+                return 1;
+            }
+
+            long rank = (long) (keySpace * Math.pow(eta * u - eta + 1, alpha));
+            return (int) Math.min(rank, keySpace - 1L);
+        }
+
+        int getKeySpace() {
+            return keySpace;
+        }
+
+        private static double zeta(long n, double theta) {
+            long exactTerms = Math.min(n, EXACT_ZETA_TERMS);
+            double sum = 0;
+            for (long i = 1; i <= exactTerms; i++) {
+                sum += 1 / Math.pow(i, theta);
+            }
+
+            if (n > exactTerms) {
+                // integral of x^-theta over [exactTerms + 0.5, n + 0.5]
+                sum += (Math.pow(n + 0.5, 1 - theta) - Math.pow(exactTerms + 0.5, 1 - theta)) / (1 - theta);
+            }
+
+            return sum;
+        }
+    }
+
+    /**
+     * Maps ranks to keys with a bijection, so the popular keys are scattered over the key space
+     * instead of being the smallest keys (which would make them neighbours in RocksDb and corfu streams)
+     */
+    class ScrambledDistribution implements KeyDistribution {
+        /**
+         * A prime bigger than any key space, coprime with the key space: rank * PRIME mod keySpace is a bijection
+         */
+        private static final long PRIME = 2_147_483_659L;
+
+        private final ZipfianDistribution ranks;
+
+        public ScrambledDistribution(ZipfianDistribution ranks) {
+            this.ranks = ranks;
+        }
+
+        @Override
+        public int nextKey() {
+            return (int) ((ranks.nextKey() * PRIME) % ranks.getKeySpace());
+        }
+    }
+
+    /**
+     * hotOpsFraction of the operations access the hot set: the first hotKeysFraction of the keys,
+     * the rest of the operations access the rest of the keys. Keys are uniform inside the sets.
+     */
+    class HotspotDistribution implements KeyDistribution {
+        public static final double DEFAULT_HOT_OPS = 0.8;
+        public static final double DEFAULT_HOT_KEYS = 0.2;
+
+        private final int keySpace;
+        private final int hotKeys;
+        private final double hotOpsFraction;
+
+        public HotspotDistribution(int keySpace, double hotOpsFraction, double hotKeysFraction) {
+            if (hotOpsFraction < 0 || hotOpsFraction > 1 || hotKeysFraction <= 0 || hotKeysFraction > 1) {
+                throw new IllegalArgumentException("Invalid hotspot: " + hotOpsFraction + ":" + hotKeysFraction);
+            }
+
+            this.keySpace = keySpace;
+            this.hotKeys = Math.max(1, (int) (keySpace * hotKeysFraction));
+            this.hotOpsFraction = hotOpsFraction;
+        }
+
+        @Override
+        public int nextKey() {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            if (hotKeys == keySpace || rnd.nextDouble() < hotOpsFraction) {
+                return rnd.nextInt(hotKeys);
+            }
+
+            return hotKeys + rnd.nextInt(keySpace - hotKeys);
+        }
+    }
+
+    /**
+     * Zipfian by recency: rank 0 is the latest inserted key, rank 1 is the previous one and so on.
+     * Before the first insert the latest key is the last key of the key space (a pre-filled table).
+     */
+    class LatestDistribution implements KeyDistribution {
+        private final ZipfianDistribution ranks;
+        private final AtomicInteger latest;
+
+        public LatestDistribution(ZipfianDistribution ranks) {
+            this.ranks = ranks;
+            this.latest = new AtomicInteger(ranks.getKeySpace() - 1);
+        }
+
+        @Override
+        public int nextKey() {
+            return Math.floorMod(latest.get() - ranks.nextKey(), ranks.getKeySpace());
+        }
+
+        @Override
+        public void onInsert(int key) {
+            latest.set(key);
+        }
+    }
+
+    /**
+     * Keys in order, shared by all the threads
+     */
+    class SequentialDistribution implements KeyDistribution {
+        private final int keySpace;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        public SequentialDistribution(int keySpace) {
+            this.keySpace = keySpace;
+        }
+
+        @Override
+        public int nextKey() {
+            return Math.floorMod(counter.getAndIncrement(), keySpace);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package org.corfudb.benchmarks.util;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.benchmarks.BenchmarkSchema.EventBatch;
+import org.corfudb.benchmarks.BenchmarkSchema.EventInfo;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Payload generator with a controlled entropy, allows to measure how compression changes throughput
+ * and the number of bytes written by corfu and RocksDb.
+ * <p>
+ * Like {@link DataGenerator}, every generator pre-generates a pool of data of its {@link PayloadType}
+ * and provides slices of the pool at random offsets ({@link ThreadLocalRandom}).
+ * Protobuf payloads are sequences of whole EventInfo records, so every value is a valid serialized EventBatch,
+ * its size is the largest number of records that fit into the requested size (at least one record).
+ * <p>
+ * Generators are cached: one pool per payload type and compression ratio.
+ */
+@Slf4j
+public final class PayloadGenerator {
+    public static final int DEFAULT_COMPRESSION_RATIO = 4;
+
+    /**
+     * Max value size is 512 KB, the pool keeps 32 values of max size
+     */
+    private static final int POOL_SIZE = 16 * 1024 * 1024;
+    private static final int BLOCK_SIZE = 4 * 1024;
+
+    private static final byte[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ1234567890".getBytes(StandardCharsets.US_ASCII);
+    private static final int VOCABULARY_SIZE = 2048;
+    private static final String[] PUNCTUATION = {" ", " ", " ", " ", " ", " ", ", ", ". ", ".\n"};
+    private static final String[] EVENT_NAMES = {
+            "interface-up", "interface-down", "link-flap", "config-change", "login", "logout", "alarm", "heartbeat"
+    };
+    private static final int[] PORTS = {22, 53, 80, 443, 8080, 9000, 9092};
+
+    private static final Map<String, PayloadGenerator> GENERATORS = new ConcurrentHashMap<>();
+
+    @Getter
+    private final PayloadType type;
+
+    @Getter
+    private final int compressionRatio;
+
+    private final byte[] pool;
+
+    /**
+     * Start offsets of the protobuf records in the pool, null for other payload types
+     */
+    private final int[] records;
+
+    /**
+     * Number of protobuf records that start in the first half of the pool
+     */
+    private final int firstHalfRecords;
+
+    private PayloadGenerator(PayloadType type, int compressionRatio) {
+        this.type = type;
+        this.compressionRatio = compressionRatio;
+
+        SplittableRandom rnd = new SplittableRandom();
+        switch (type) {
+            case RANDOM:
+                pool = randomPool(rnd);
+                records = null;
+                firstHalfRecords = 0;
+                break;
+            case ASCII:
+                pool = asciiPool(rnd);
+                records = null;
+                firstHalfRecords = 0;
+                break;
+            case TEXT:
+                pool = textPool(rnd);
+                records = null;
+                firstHalfRecords = 0;
+                break;
+            case REPEATED_BLOCK:
+                pool = repeatedBlockPool(rnd, compressionRatio);
+                records = null;
+                firstHalfRecords = 0;
+                break;
+            case PROTOBUF:
+                ByteArrayOutputStream output = new ByteArrayOutputStream(POOL_SIZE);
+                // an encoded record takes more than 16 bytes
+                int[] offsets = new int[POOL_SIZE / 16 + 2];
+                int numRecords = 0;
+                while (output.size() < POOL_SIZE) {
+                    offsets[numRecords++] = output.size();
+                    // a single element of the repeated field: tag, length, EventInfo
+                    byte[] encodedEvent = EventBatch.newBuilder()
+                            .addEvents(randomEvent(rnd, numRecords))
+                            .build()
+                            .toByteArray();
+                    output.write(encodedEvent, 0, encodedEvent.length);
+                }
+                offsets[numRecords] = output.size();
+
+                pool = output.toByteArray();
+                records = Arrays.copyOf(offsets, numRecords + 1);
+                firstHalfRecords = countRecordsBefore(records, pool.length / 2);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown payload type: " + type);
+        }
+    }
+
+    /**
+     * Provides a generator of the payload type
+     *
+     * @param type             payload type
+     * @param compressionRatio compression ratio of {@link PayloadType#REPEATED_BLOCK} payloads
+     * @return payload generator
+     */
+    public static PayloadGenerator of(@NonNull PayloadType type, int compressionRatio) {
+        int ratio = compressionRatio > 0 ? compressionRatio : DEFAULT_COMPRESSION_RATIO;
+        return GENERATORS.computeIfAbsent(type.getTypeName() + "-" + ratio, key -> {
+            log.info("Generate payload pool: {}, compression ratio: {}", type, ratio);
+            return new PayloadGenerator(type, ratio);
+        });
+    }
+
+    /**
+     * Provides a generator of the payload type with the default compression ratio
+     *
+     * @param typeName payload type name
+     * @return payload generator
+     */
+    public static PayloadGenerator of(String typeName) {
+        return of(PayloadType.fromName(typeName), DEFAULT_COMPRESSION_RATIO);
+    }
+
+    /**
+     * Generates a byte array, a copy of the pool
+     *
+     * @param size max payload size
+     * @return payload
+     */
+    public byte[] generate(int size) {
+        long range = range(size);
+        int offset = (int) (range >>> 32);
+        return Arrays.copyOfRange(pool, offset, offset + (int) range);
+    }
+
+    /**
+     * Provides a protobuf view of the pool, nothing is copied
+     *
+     * @param size max payload size
+     * @return payload
+     */
+    public ByteString generateByteString(int size) {
+        long range = range(size);
+        return UnsafeByteOperations.unsafeWrap(pool, (int) (range >>> 32), (int) range);
+    }
+
+    /**
+     * Generates a string, every byte of the payload is a latin-1 character.
+     * Random, ascii, text and repeated-block payloads are 7-bit, their utf-8 encoding has the same size.
+     *
+     * @param size max payload size
+     * @return payload
+     */
+    public String generateString(int size) {
+        long range = range(size);
+        return new String(pool, (int) (range >>> 32), (int) range, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Random slice of the pool
+     *
+     * @param size max slice size
+     * @return offset (high 32 bits) and length (low 32 bits) of the slice
+     */
+    private long range(int size) {
+        if (size < 0 || size > pool.length / 2) {
+            throw new IllegalArgumentException("Invalid payload size: " + size);
+        }
+
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        if (records == null) {
+            int offset = rnd.nextInt(pool.length - size + 1);
+            return ((long) offset << 32) | size;
+        }
+
+        // whole records, starting in the first half of the pool: there are always enough records after it
+        int first = rnd.nextInt(firstHalfRecords);
+        int offset = records[first];
+        int last = first + 1;
+        while (last < records.length - 1 && records[last + 1] - offset <= size) {
+            last++;
+        }
+
+        return ((long) offset << 32) | (records[last] - offset);
+    }
+
+    private static int countRecordsBefore(int[] recordOffsets, int position) {
+        int count = 0;
+        while (count < recordOffsets.length - 1 && recordOffsets[count] < position) {
+            count++;
+        }
+
+        return count;
+    }
+
+    private static byte[] randomPool(SplittableRandom rnd) {
+        byte[] result = new byte[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            result[i] = (byte) rnd.nextInt(128);
+        }
+
+        return result;
+    }
+
+    private static byte[] asciiPool(SplittableRandom rnd) {
+        byte[] result = new byte[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            result[i] = ALPHABET[rnd.nextInt(ALPHABET.length)];
+        }
+
+        return result;
+    }
+
+    /**
+     * Words of a random vocabulary, word frequency is skewed: a few words are used most of the time
+     */
+    private static byte[] textPool(SplittableRandom rnd) {
+        byte[][] vocabulary = new byte[VOCABULARY_SIZE][];
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            byte[] word = new byte[2 + rnd.nextInt(9)];
+            for (int j = 0; j < word.length; j++) {
+                word[j] = (byte) ('a' + rnd.nextInt(26));
+            }
+            vocabulary[i] = word;
+        }
+
+        byte[] result = new byte[POOL_SIZE];
+        int position = 0;
+        while (position < POOL_SIZE) {
+            double skew = rnd.nextDouble();
+            byte[] word = vocabulary[(int) (VOCABULARY_SIZE * skew * skew * skew)];
+            byte[] separator = PUNCTUATION[rnd.nextInt(PUNCTUATION.length)].getBytes(StandardCharsets.US_ASCII);
+
+            position = append(result, position, word);
+            position = append(result, position, separator);
+        }
+
+        return result;
+    }
+
+    /**
+     * Every block repeats a random sequence of blockSize/compressionRatio bytes,
+     * blocks are small enough to fit the window of any codec (lz4: 64 KB)
+     */
+    private static byte[] repeatedBlockPool(SplittableRandom rnd, int compressionRatio) {
+        int sequenceSize = Math.max(1, BLOCK_SIZE / compressionRatio);
+        byte[] sequence = new byte[sequenceSize];
+
+        byte[] result = new byte[POOL_SIZE];
+        for (int block = 0; block < POOL_SIZE; block += BLOCK_SIZE) {
+            for (int i = 0; i < sequenceSize; i++) {
+                sequence[i] = (byte) rnd.nextInt(128);
+            }
+
+            for (int position = block; position < block + BLOCK_SIZE; ) {
+                position = append(result, position, sequence);
+            }
+        }
+
+        return result;
+    }
+
+    private static EventInfo randomEvent(SplittableRandom rnd, int id) {
+        return EventInfo.newBuilder()
+                .setId(id)
+                .setName(EVENT_NAMES[rnd.nextInt(EVENT_NAMES.length)] + "-" + rnd.nextInt(1024))
+                .setPort(PORTS[rnd.nextInt(PORTS.length)])
+                .setEventTime(System.currentTimeMillis() + id * 10L + rnd.nextInt(10))
+                .setFrequency(rnd.nextInt(100))
+                .build();
+    }
+
+    private static int append(byte[] target, int position, byte[] data) {
+        int length = Math.min(data.length, target.length - position);
+        System.arraycopy(data, 0, target, position, length);
+        return position + length;
+    }
+}
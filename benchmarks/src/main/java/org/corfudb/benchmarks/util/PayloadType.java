@@ -0,0 +1,55 @@
+package org.corfudb.benchmarks.util;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Payload models of {@link PayloadGenerator}, from incompressible to highly compressible data
+ */
+public enum PayloadType {
+    /**
+     * Uniformly random 7-bit bytes: incompressible (beyond 8/7) and a string value has the same utf-8 size
+     */
+    RANDOM("random"),
+
+    /**
+     * Random characters of a 36 character alphabet, the data of {@link DataGenerator}
+     */
+    ASCII("ascii"),
+
+    /**
+     * Text-like: words of a fixed vocabulary with a skewed frequency, spaces and punctuation
+     */
+    TEXT("text"),
+
+    /**
+     * Every 4 KB block repeats a random sequence, the compression ratio is a parameter of the generator
+     */
+    REPEATED_BLOCK("repeated-block"),
+
+    /**
+     * Serialized protobuf EventBatch messages of EventInfo records
+     */
+    PROTOBUF("protobuf");
+
+    @Getter
+    private final String typeName;
+
+    PayloadType(String typeName) {
+        this.typeName = typeName;
+    }
+
+    /**
+     * Find a payload type by name
+     *
+     * @param typeName type name, like: repeated-block
+     * @return payload type
+     */
+    public static PayloadType fromName(String typeName) {
+        return Arrays.stream(values())
+                .filter(type -> type.typeName.equals(typeName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown payload type: " + typeName));
+    }
+}